@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массовое создание вещей на in-memory H2: поштучные вызовы {@link ItemService#create}
+ * против одного вызова {@link ItemService#createAll}. Пропускная способность
+ * считается в созданных вещах в секунду.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemImportBenchmark {
+
+    private static final int BATCH = 500;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private Long ownerId;
+    private List<ItemDto> itemDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:import-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        ownerId = context.getBean(UserRepository.class)
+                .save(User.builder().name("Owner").email("owner@mail.ru").build()).getId();
+
+        itemDtos = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            itemDtos.add(ItemDto.builder()
+                    .name("Вещь " + i)
+                    .description("Описание вещи " + i)
+                    .available(true).build());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        itemRepository.deleteAllInBatch();
+        context.getBean(TrigramItemSearchEngine.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<ItemDto> createOneByOne() {
+        List<ItemDto> created = new ArrayList<>(BATCH);
+        for (ItemDto itemDto : itemDtos) {
+            created.add(itemService.create(ownerId, itemDto));
+        }
+        return created;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<ItemDto> createAll() {
+        return itemService.createAll(ownerId, itemDtos);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время ответа автодополнения по дереву названий для коротких и длинных префиксов.
+ * Названия собираются из небольшого словаря, поэтому у коротких префиксов много продолжений.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemNameTrieBenchmark {
+
+    private static final String[] WORDS = {"Дрель", "Пила", "Отвертка", "Молоток", "Лестница", "Палатка",
+            "ударная", "аккумуляторная", "складная", "туристическая", "большая", "детская"};
+
+    @Param({"10000", "100000"})
+    public int items;
+
+    @Param({"д", "дрель уд"})
+    public String prefix;
+
+    private ItemNameTrie trie;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trie = new ItemNameTrie(null, null);
+        Random random = new Random(42);
+        for (long id = 0; id < items; id++) {
+            String name = WORDS[random.nextInt(6)] + " " + WORDS[6 + random.nextInt(6)] + " " + random.nextInt(1000);
+            trie.index(Item.builder().id(id).name(name).available(true).build());
+        }
+    }
+
+    @Benchmark
+    public List<String> complete() {
+        return trie.complete(prefix, 10);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.itemRequest.dto.ItemRequestDto;
+import ru.practicum.shareit.itemRequest.model.ItemRequest;
+import ru.practicum.shareit.itemRequest.repository.ItemRequestRepository;
+import ru.practicum.shareit.itemRequest.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Списки запросов вещей на засеянной in-memory H2: страница чужих запросов и все запросы автора.
+ * Автор создает {@code requestsPerPage} запросов, на каждый другой пользователь откликается
+ * {@code itemsPerRequest} вещами, поэтому обе выдачи возвращают одинаковый объем данных
+ * и показывают, растет ли число запросов к БД вместе со страницей или числом вещей.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemRequestBenchmark {
+
+    @Param({"10", "100"})
+    public int requestsPerPage;
+
+    @Param({"1", "10"})
+    public int itemsPerRequest;
+
+    private ConfigurableApplicationContext context;
+    private ItemRequestService itemRequestService;
+    private Long requestorId;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemRequestService = context.getBean(ItemRequestService.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getAllRequests() {
+        return itemRequestService.getAllRequests(ownerId, 0, requestsPerPage);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getAllRequestByUser() {
+        return itemRequestService.getAllRequestByUser(requestorId);
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRequestRepository itemRequestRepository = context.getBean(ItemRequestRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+
+        User requestor = userRepository.save(User.builder().name("Requestor").email("requestor@mail.ru").build());
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.ru").build());
+        requestorId = requestor.getId();
+        ownerId = owner.getId();
+
+        List<ItemRequest> requests = new ArrayList<>(requestsPerPage);
+        for (int i = 0; i < requestsPerPage; i++) {
+            requests.add(ItemRequest.builder()
+                    .description("Нужна вещь " + i)
+                    .requestor(requestor).build());
+        }
+        requests = itemRequestRepository.saveAll(requests);
+
+        List<Item> items = new ArrayList<>(requestsPerPage * itemsPerRequest);
+        for (ItemRequest request : requests) {
+            for (int i = 0; i < itemsPerRequest; i++) {
+                items.add(Item.builder()
+                        .name("Вещь " + i)
+                        .description("Ответ на запрос " + request.getId())
+                        .available(true)
+                        .owner(owner)
+                        .request(request).build());
+            }
+        }
+        itemRepository.saveAll(items);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.shareit.util.LogExecution;
+import ru.practicum.shareit.util.LoggingAspect;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы LoggingAspect на вызов метода при выключенном уровне логирования
+ * в сравнении с прямым вызовом того же метода. Вариант без таймера показывает цену
+ * самого аспекта, остальные включают запись длительности в Micrometer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+
+    private Target direct;
+    private Target advised;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(LoggingAspect.class)).setLevel(Level.WARN);
+        direct = new Target();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect(new SimpleMeterRegistry()));
+        advised = factory.getProxy();
+    }
+
+    @Benchmark
+    public long direct() {
+        return direct.plain(42L);
+    }
+
+    @Benchmark
+    public long advised() {
+        return advised.plain(42L);
+    }
+
+    @Benchmark
+    public long advisedUntimed() {
+        return advised.untimed(42L);
+    }
+
+    @Benchmark
+    public long advisedWithArgs() {
+        return advised.withArgs(42L, "text");
+    }
+
+    public static class Target {
+
+        @LogExecution
+        public long plain(long value) {
+            return value + 1;
+        }
+
+        @LogExecution(timed = false)
+        public long untimed(long value) {
+            return value + 1;
+        }
+
+        @LogExecution(withArgs = true)
+        public long withArgs(long value, String text) {
+            return value + text.length();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.benchmark;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemBooked;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность и аллокации MapStruct-мапперов на горячих путях ответов.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+    private final ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
+
+    private Booking booking;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(1L).name("Owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(2L).name("Booker").email("booker@mail.ru").build();
+        item = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(owner).build();
+        booking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .end(LocalDateTime.of(2030, 1, 2, 12, 0))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED).build();
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingToResponseDto() {
+        return bookingMapper.bookingToResponseDto(booking);
+    }
+
+    @Benchmark
+    public ItemBooked itemToItemBooked() {
+        return itemMapper.itemToItemBooked(item);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingsUpdater;
+import ru.practicum.shareit.item.dto.ItemBooked;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentsRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сервисные горячие пути на засеянной in-memory H2: список вещей владельца
+ * с последним/следующим бронированием и комментариями и список бронирований арендатора.
+ * Размер набора данных задается параметром {@code items}: у каждой вещи по одному
+ * прошедшему и одному будущему подтвержденному бронированию и одному комментарию.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10", "100", "1000"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private Long ownerId;
+    private Long bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        seed();
+        context.getBean(BookingIntervalIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemBooked> getAllItemsDyUserId() {
+        return itemService.getAllItemsDyUserId(ownerId, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> getAllBookingsByState() {
+        return bookingService.getAllBookingsByState(bookerId, "ALL", 0, PAGE_SIZE, false);
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentsRepository commentsRepository = context.getBean(CommentsRepository.class);
+
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@mail.ru").build());
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+
+        List<Item> savedItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            savedItems.add(Item.builder()
+                    .name("Вещь " + i)
+                    .description("Описание вещи " + i)
+                    .available(true)
+                    .owner(owner)
+                    .commentCount(1).build());
+        }
+        savedItems = itemRepository.saveAll(savedItems);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(items * 2);
+        List<Comment> comments = new ArrayList<>(items);
+        for (Item item : savedItems) {
+            bookings.add(booking(item, booker, now.minusDays(2), now.minusDays(1)));
+            bookings.add(booking(item, booker, now.plusDays(1), now.plusDays(2)));
+            comments.add(Comment.builder().text("Отличная вещь").item(item).author(booker).build());
+        }
+        bookingRepository.saveAll(bookings);
+        commentsRepository.saveAll(comments);
+        context.getBean(ItemBookingsUpdater.class).refresh(
+                savedItems.stream().map(Item::getId).collect(Collectors.toList()), now);
+    }
+
+    private Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.APPROVED).build();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Засеянные данные, из которых собираются запросы: пользователи, вещи с их владельцами
+ * и свободные интервалы для новых бронирований.
+ */
+@Getter
+public class Dataset {
+
+    static final List<String> SEARCH_WORDS = List.of("дрель", "пила", "палатк", "ударн", "складн", "лестниц");
+
+    private final List<Long> userIds;
+    private final List<Long> itemIds;
+    private final List<Long> itemOwnerIds;
+    private final List<Integer> availableItems;
+    private final LocalDateTime slotsStart;
+    private final AtomicLong slots = new AtomicLong();
+
+    public Dataset(List<Long> userIds, List<Long> itemIds, List<Long> itemOwnerIds, List<Integer> availableItems,
+                   LocalDateTime slotsStart) {
+        this.userIds = List.copyOf(userIds);
+        this.itemIds = List.copyOf(itemIds);
+        this.itemOwnerIds = List.copyOf(itemOwnerIds);
+        this.availableItems = List.copyOf(availableItems);
+        this.slotsStart = slotsStart;
+    }
+
+    /**
+     * Позиция случайной доступной для бронирования вещи в {@link #itemIds}.
+     */
+    int randomAvailableItem(Random random) {
+        return availableItems.get(random.nextInt(availableItems.size()));
+    }
+
+    Long randomUser(Random random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    Long randomUserExcept(Long userId, Random random) {
+        Long other = randomUser(random);
+        while (other.equals(userId)) {
+            other = randomUser(random);
+        }
+        return other;
+    }
+
+    /**
+     * Очередной двухчасовой интервал после засеянных бронирований: новые бронирования не пересекаются
+     * ни с засеянными, ни друг с другом, поэтому создание не отбраковывается проверкой занятости.
+     */
+    LocalDateTime nextFreeSlot() {
+        return slotsStart.plusHours(2 * slots.getAndIncrement());
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.ItemBookingsUpdater;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentsRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+import ru.practicum.shareit.itemRequest.model.ItemRequest;
+import ru.practicum.shareit.itemRequest.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Засевает базу через репозитории, поэтому работает на любой базе, которую поддерживает приложение.
+ * Прошедшие бронирования и отзывы через REST создать нельзя, а in-memory индексы после засева
+ * перестраиваются так же, как при старте приложения.
+ */
+@Slf4j
+public class DatasetSeeder {
+
+    private static final int CHUNK = 1_000;
+    private static final String[] NAMES = {"Дрель", "Пила", "Палатка", "Лестница", "Отвертка", "Молоток"};
+    private static final String[] TRAITS = {"ударная", "складная", "аккумуляторная", "туристическая", "легкая"};
+
+    private final ApplicationContext context;
+    private final TransactionTemplate transactionTemplate;
+    private final Random random = new Random(42);
+
+    public DatasetSeeder(ApplicationContext context) {
+        this.context = context;
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    public Dataset seed(LoadTestOptions options) {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        // Уникальный суффикс позволяет засевать одну и ту же базу повторно.
+        String run = UUID.randomUUID().toString().substring(0, 8);
+
+        List<User> users = new ArrayList<>(options.getUsers());
+        for (int i = 0; i < options.getUsers(); i++) {
+            users.add(User.builder()
+                    .name("User " + i)
+                    .email("user" + i + "-" + run + "@loadtest.ru").build());
+        }
+        users = saveAll(users, context.getBean(UserRepository.class)::saveAll);
+        List<User> owners = users.subList(0, Math.max(1, users.size() / 2));
+
+        List<ItemRequest> requests = new ArrayList<>(options.getRequests());
+        for (int i = 0; i < options.getRequests(); i++) {
+            requests.add(ItemRequest.builder()
+                    .description("Нужна " + NAMES[i % NAMES.length].toLowerCase())
+                    .requestor(users.get(random.nextInt(users.size()))).build());
+        }
+        requests = saveAll(requests, context.getBean(ItemRequestRepository.class)::saveAll);
+
+        List<Item> newItems = new ArrayList<>(options.getItems());
+        for (int i = 0; i < options.getItems(); i++) {
+            String name = NAMES[random.nextInt(NAMES.length)] + " " + TRAITS[random.nextInt(TRAITS.length)];
+            newItems.add(Item.builder()
+                    .name(name)
+                    .description(name + ", экземпляр " + i)
+                    .available(i == 0 || random.nextInt(10) > 0)
+                    .owner(owners.get(i % owners.size()))
+                    .request(!requests.isEmpty() && random.nextInt(10) == 0
+                            ? requests.get(random.nextInt(requests.size()))
+                            : null).build());
+        }
+        List<Item> items = saveAll(newItems, context.getBean(ItemRepository.class)::saveAll);
+
+        List<Booking> bookings = new ArrayList<>(options.getBookings());
+        for (int i = 0; i < options.getBookings(); i++) {
+            Item item = items.get(random.nextInt(items.size()));
+            User booker = bookerFor(item, users);
+            boolean past = i % 2 == 0;
+            LocalDateTime start = past
+                    ? now.minusDays(1 + random.nextInt(365))
+                    : now.plusDays(1 + random.nextInt(60));
+            bookings.add(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(start)
+                    .end(start.plusHours(1 + random.nextInt(72)))
+                    .status(past || random.nextBoolean() ? BookingStatus.APPROVED : BookingStatus.WAITING).build());
+        }
+        bookings = saveAll(bookings, context.getBean(BookingRepository.class)::saveAll);
+
+        List<Booking> pastBookings = bookings.stream()
+                .filter(booking -> booking.getEnd().isBefore(now))
+                .collect(Collectors.toList());
+        List<Comment> comments = new ArrayList<>(options.getComments());
+        for (int i = 0; i < options.getComments() && !pastBookings.isEmpty(); i++) {
+            Booking booking = pastBookings.get(random.nextInt(pastBookings.size()));
+            comments.add(Comment.builder()
+                    .text("Отзыв " + i)
+                    .item(booking.getItem())
+                    .author(booking.getBooker()).build());
+        }
+        saveAll(comments, context.getBean(CommentsRepository.class)::saveAll);
+        // Отзывы сохраняются в обход сервиса, поэтому счетчики пересчитываются так же, как в миграции V5.
+        context.getBean(JdbcTemplate.class).update("UPDATE items i " +
+                "SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = i.id)");
+        context.getBean(EntityManagerFactory.class).getCache().evict(Item.class);
+
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        ItemBookingsUpdater itemBookingsUpdater = context.getBean(ItemBookingsUpdater.class);
+        for (int from = 0; from < itemIds.size(); from += CHUNK) {
+            itemBookingsUpdater.refresh(itemIds.subList(from, Math.min(from + CHUNK, itemIds.size())), now);
+        }
+        context.getBean(BookingIntervalIndex.class).rebuild();
+        context.getBean(TrigramItemSearchEngine.class).rebuild();
+        context.getBean(ItemNameTrie.class).rebuild();
+
+        log.warn("Seeded {} users, {} requests, {} items, {} bookings, {} comments in {} ms",
+                users.size(), requests.size(), items.size(), bookings.size(), comments.size(),
+                (System.nanoTime() - started) / 1_000_000);
+
+        LocalDateTime lastSeeded = bookings.stream()
+                .map(Booking::getEnd)
+                .max(LocalDateTime::compareTo)
+                .orElse(now);
+        return new Dataset(
+                users.stream().map(User::getId).collect(Collectors.toList()),
+                itemIds,
+                items.stream().map(item -> item.getOwner().getId()).collect(Collectors.toList()),
+                IntStream.range(0, items.size())
+                        .filter(i -> items.get(i).getAvailable())
+                        .boxed()
+                        .collect(Collectors.toList()),
+                lastSeeded.plusDays(1));
+    }
+
+    private User bookerFor(Item item, List<User> users) {
+        User booker = users.get(random.nextInt(users.size()));
+        while (booker.getId().equals(item.getOwner().getId())) {
+            booker = users.get(random.nextInt(users.size()));
+        }
+        return booker;
+    }
+
+    private <T> List<T> saveAll(List<T> entities, Function<List<T>, List<T>> saver) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += CHUNK) {
+            List<T> chunk = entities.subList(from, Math.min(from + CHUNK, entities.size()));
+            saved.addAll(transactionTemplate.execute(status -> saver.apply(chunk)));
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Эндпоинты, которые нагружает прогон, и сборка запроса к каждому из них по засеянным данным.
+ */
+public enum Endpoint {
+
+    CREATE_BOOKING("createBooking") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, Random random) {
+            int item = dataset.randomAvailableItem(random);
+            Long bookerId = dataset.randomUserExcept(dataset.getItemOwnerIds().get(item), random);
+            LocalDateTime start = dataset.nextFreeSlot();
+            String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                    dataset.getItemIds().get(item), DATE_TIME.format(start), DATE_TIME.format(start.plusHours(1)));
+            return builder(base, "/bookings", bookerId)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    },
+    OWNER_ITEMS("ownerItems") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, Random random) {
+            Long ownerId = dataset.getItemOwnerIds().get(random.nextInt(dataset.getItemOwnerIds().size()));
+            return builder(base, "/items?from=0&size=20", ownerId).GET().build();
+        }
+    },
+    SEARCH("search") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, Random random) {
+            String text = Dataset.SEARCH_WORDS.get(random.nextInt(Dataset.SEARCH_WORDS.size()));
+            return builder(base, "/items/search?from=0&size=20&text=" + URLEncoder.encode(text, StandardCharsets.UTF_8),
+                    dataset.randomUser(random))
+                    .GET().build();
+        }
+    },
+    REQUEST_FEED("requestFeed") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, Random random) {
+            return builder(base, "/requests/all?from=0&size=20", dataset.randomUser(random)).GET().build();
+        }
+    };
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final String alias;
+
+    Endpoint(String alias) {
+        this.alias = alias;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public static Endpoint byName(String alias) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.alias.equals(alias)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + alias);
+    }
+
+    abstract HttpRequest request(URI base, Dataset dataset, Random random);
+
+    private static HttpRequest.Builder builder(URI base, String path, Long userId) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("X-Sharer-User-Id", userId.toString());
+    }
+}
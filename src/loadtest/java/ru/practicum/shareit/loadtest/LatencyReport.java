@@ -0,0 +1,133 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и ошибки по эндпоинтам. Гистограммы HdrHistogram хранят задержки в микросекундах,
+ * отчет печатается в консоль и сохраняется в CSV, чтобы сравнивать прогоны до и после изменения.
+ */
+public class LatencyReport {
+
+    private static final String HEADER = "endpoint,requests,errors,rps,p50_ms,p95_ms,p99_ms,max_ms";
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+
+    public LatencyReport() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    void record(Endpoint endpoint, long nanos, boolean success) {
+        latencies.get(endpoint).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY_MICROS));
+        if (!success) {
+            errors.get(endpoint).increment();
+        }
+    }
+
+    List<String> rows(Duration elapsed) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        List<String> rows = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            rows.add(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f",
+                    endpoint.getAlias(),
+                    histogram.getTotalCount(),
+                    errors.get(endpoint).sum(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(95)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue())));
+        }
+        return rows;
+    }
+
+    /**
+     * Печатает отчет, сохраняет его в {@code reportDir} и, если задан базовый отчет, печатает изменение
+     * каждого показателя относительно него.
+     */
+    Path write(Duration elapsed, Path reportDir, Path baseline, PrintStream out) throws IOException {
+        List<String> rows = rows(elapsed);
+        out.printf("%-14s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "rps", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (String row : rows) {
+            Object[] values = row.split(",");
+            out.printf("%-14s %10s %8s %10s %9s %9s %9s %9s%n", values);
+        }
+
+        Files.createDirectories(reportDir);
+        Path report = reportDir.resolve("loadtest-"
+                + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").format(LocalDateTime.now()) + ".csv");
+        List<String> lines = new ArrayList<>(rows.size() + 1);
+        lines.add(HEADER);
+        lines.addAll(rows);
+        Files.write(report, lines, StandardCharsets.UTF_8);
+        out.println("Report: " + report);
+
+        if (baseline != null) {
+            printDelta(rows, read(baseline), out);
+        }
+        return report;
+    }
+
+    private static void printDelta(List<String> rows, Map<String, String[]> baseline, PrintStream out) {
+        out.println("Change against baseline:");
+        out.printf("%-14s %10s %9s %9s %9s%n", "endpoint", "rps", "p50", "p95", "p99");
+        for (String row : rows) {
+            String[] current = row.split(",");
+            String[] previous = baseline.get(current[0]);
+            if (previous == null) {
+                continue;
+            }
+            out.printf("%-14s %10s %9s %9s %9s%n", current[0],
+                    delta(current[3], previous[3]),
+                    delta(current[4], previous[4]),
+                    delta(current[5], previous[5]),
+                    delta(current[6], previous[6]));
+        }
+    }
+
+    private static Map<String, String[]> read(Path baseline) throws IOException {
+        Map<String, String[]> rows = new HashMap<>();
+        for (String line : Files.readAllLines(baseline, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.equals(HEADER)) {
+                continue;
+            }
+            String[] values = line.split(",");
+            rows.put(values[0], values);
+        }
+        return rows;
+    }
+
+    private static String delta(String current, String previous) {
+        double before = Double.parseDouble(previous);
+        if (before == 0) {
+            return "n/a";
+        }
+        return String.format(Locale.ROOT, "%+.1f%%", (Double.parseDouble(current) - before) * 100 / before);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный прогон: поднимает приложение на случайном порту, засевает базу, прогревает его
+ * и замеряет задержки заданной смеси запросов из нескольких потоков.
+ * <p>
+ * Запуск: {@code mvn -P loadtest test-compile exec:exec -Dloadtest.args="--threads=32 --duration=PT1M"}.
+ * По умолчанию используется отдельная H2 в памяти; для прогона на PostgreSQL достаточно передать
+ * {@code --spring.datasource.*}.
+ */
+public class LoadTest {
+
+    private static final List<String> DEFAULT_APPLICATION_ARGS = List.of(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.properties.hibernate.show_sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.org.springframework.transaction.interceptor=WARN",
+            "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+            "--logging.level.ru.practicum.shareit.loadtest=INFO");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<String> applicationArgs = new ArrayList<>(DEFAULT_APPLICATION_ARGS);
+        // Параметры из командной строки идут последними и перекрывают значения по умолчанию.
+        applicationArgs.addAll(options.getApplicationArgs());
+
+        try (ConfigurableApplicationContext context =
+                     SpringApplication.run(ShareItApp.class, applicationArgs.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Dataset dataset = new DatasetSeeder(context).seed(options);
+            LatencyReport report = run(URI.create("http://localhost:" + port), dataset, options);
+            report.write(options.getDuration(), options.getReportDir(), options.getBaseline(), System.out);
+        }
+    }
+
+    private static LatencyReport run(URI base, Dataset dataset, LoadTestOptions options) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Endpoint[] weighted = weighted(options.getMix());
+        LatencyReport report = new LatencyReport();
+        long warmupEnd = System.nanoTime() + options.getWarmup().toNanos();
+        long end = warmupEnd + options.getDuration().toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.getThreads());
+        for (int thread = 0; thread < options.getThreads(); thread++) {
+            Random random = new Random(thread);
+            executor.submit(() -> {
+                while (System.nanoTime() < end) {
+                    Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+                    HttpRequest request = endpoint.request(base, dataset, random);
+                    long started = System.nanoTime();
+                    boolean success;
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        success = status >= 200 && status < 300;
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    // Запросы прогрева не попадают в отчет.
+                    if (started >= warmupEnd) {
+                        report.record(endpoint, System.nanoTime() - started, success);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(end - System.nanoTime() + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS)) {
+            executor.shutdownNow();
+        }
+        return report;
+    }
+
+    private static Endpoint[] weighted(Map<Endpoint, Integer> mix) {
+        List<Endpoint> weighted = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Endpoint mix is empty");
+        }
+        return weighted.toArray(Endpoint[]::new);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Параметры прогона в виде {@code --name=value}. Неизвестные параметры передаются приложению как есть,
+ * например {@code --spring.datasource.url=jdbc:postgresql://localhost:5432/shareit}.
+ */
+@Getter
+public class LoadTestOptions {
+
+    private int users = 200;
+    private int items = 2_000;
+    private int requests = 200;
+    private int bookings = 4_000;
+    private int comments = 2_000;
+    private int threads = 16;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(30);
+    private Map<Endpoint, Integer> mix = defaultMix();
+    private Path reportDir = Path.of("target", "loadtest");
+    private Path baseline;
+    private final List<String> applicationArgs = new ArrayList<>();
+
+    public static LoadTestOptions parse(String... args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "users":
+                    options.users = Integer.parseInt(value);
+                    break;
+                case "items":
+                    options.items = Integer.parseInt(value);
+                    break;
+                case "requests":
+                    options.requests = Integer.parseInt(value);
+                    break;
+                case "bookings":
+                    options.bookings = Integer.parseInt(value);
+                    break;
+                case "comments":
+                    options.comments = Integer.parseInt(value);
+                    break;
+                case "threads":
+                    options.threads = Integer.parseInt(value);
+                    break;
+                case "warmup":
+                    options.warmup = Duration.parse(value);
+                    break;
+                case "duration":
+                    options.duration = Duration.parse(value);
+                    break;
+                case "mix":
+                    options.mix = parseMix(value);
+                    break;
+                case "report-dir":
+                    options.reportDir = Path.of(value);
+                    break;
+                case "baseline":
+                    options.baseline = Path.of(value);
+                    break;
+                default:
+                    options.applicationArgs.add(arg);
+            }
+        }
+        if (options.users < 2 || options.items < 1) {
+            throw new IllegalArgumentException("Need at least 2 users and 1 item");
+        }
+        return options;
+    }
+
+    /**
+     * Доли эндпоинтов в нагрузке, например {@code createBooking:1,ownerItems:4,search:4,requestFeed:1}.
+     */
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint:weight, got: " + part);
+            }
+            mix.put(Endpoint.byName(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<Endpoint, Integer> defaultMix() {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        mix.put(Endpoint.CREATE_BOOKING, 1);
+        mix.put(Endpoint.OWNER_ITEMS, 4);
+        mix.put(Endpoint.SEARCH, 4);
+        mix.put(Endpoint.REQUEST_FEED, 1);
+        return mix;
+    }
+}
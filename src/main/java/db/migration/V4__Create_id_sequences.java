@@ -0,0 +1,44 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Создает последовательности идентификаторов с шагом, равным allocationSize сущностей.
+ * Пулированный оптимизатор Hibernate считает полученное значение верхней границей блока,
+ * поэтому последовательность начинается на шаг выше текущего максимального id таблицы.
+ */
+public class V4__Create_id_sequences extends BaseJavaMigration {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users_seq", "users",
+            "items_seq", "items",
+            "requests_seq", "requests",
+            "bookings_seq", "bookings",
+            "comments_seq", "comments");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (Map.Entry<String, String> sequence : SEQUENCES.entrySet()) {
+                long maxId = maxId(statement, sequence.getValue());
+                statement.execute(String.format("CREATE SEQUENCE %s START WITH %d INCREMENT BY %d",
+                        sequence.getKey(), maxId + ALLOCATION_SIZE, ALLOCATION_SIZE));
+            }
+        }
+    }
+
+    private long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
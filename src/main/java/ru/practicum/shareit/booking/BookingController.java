@@ -1,17 +1,30 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingConfirmationRequestDto;
+import ru.practicum.shareit.booking.dto.BookingConfirmationResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingExport;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.util.LogExecution;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -20,7 +33,13 @@ import java.util.List;
 @Validated
 public class BookingController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String NDJSON = "application/x-ndjson";
+    static final String OFFSET_PAGING = "offset";
+    static final String CURSOR_PAGING = "cursor";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @LogExecution
@@ -38,6 +57,13 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.bookingConfirmation(userId, bookingId, approved));
     }
 
+    @PatchMapping
+    @LogExecution
+    public ResponseEntity<List<BookingConfirmationResultDto>> bookingsConfirmation(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                                   @RequestBody @Valid BookingConfirmationRequestDto request) {
+        return ResponseEntity.ok(bookingService.bookingsConfirmation(userId, request));
+    }
+
     @GetMapping("/{bookingId}")
     @LogExecution(withArgs = true)
     public ResponseEntity<BookingResponseDto> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -45,21 +71,97 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getBookingById(userId, bookingId));
     }
 
+    /**
+     * Бронирования пользователя. По умолчанию страница выбирается смещением {@code from}.
+     * С {@code paging=cursor} первая страница отдается без смещения, а курсор следующей приходит
+     * в заголовке {@value #NEXT_CURSOR_HEADER}; его передают параметром {@code cursor}, пока заголовок
+     * не перестанет приходить. Переданный {@code cursor} сам включает такой режим.
+     */
     @GetMapping
     @LogExecution(withArgs = true)
     public ResponseEntity<List<BookingResponseDto>> getAllBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                                    @RequestParam(defaultValue = "ALL", required = false) String state,
                                                                    @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-                                                                   @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+                                                                   @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size,
+                                                                   @RequestParam(required = false, defaultValue = OFFSET_PAGING) String paging,
+                                                                   @RequestParam(required = false) String cursor) {
+        if (isCursorPaging(paging, cursor)) {
+            return toResponse(bookingService.getBookingsPageByState(userId, state, cursor, size, false));
+        }
         return ResponseEntity.ok(bookingService.getAllBookingsByState(userId, state, from, size, false));
     }
 
+    /**
+     * Бронирования вещей владельца. Постраничный вывод такой же, как у {@link #getAllBookings}.
+     */
     @GetMapping("/owner")
     @LogExecution(withArgs = true)
     public ResponseEntity<List<BookingResponseDto>> getAllBookingsByItemOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                                               @RequestParam(defaultValue = "ALL", required = false) String state,
                                                                               @RequestParam(required = false, defaultValue = "0") @Min(0) Integer from,
-                                                                              @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size) {
+                                                                              @RequestParam(required = false, defaultValue = "10") @Min(1) Integer size,
+                                                                              @RequestParam(required = false, defaultValue = OFFSET_PAGING) String paging,
+                                                                              @RequestParam(required = false) String cursor) {
+        if (isCursorPaging(paging, cursor)) {
+            return toResponse(bookingService.getBookingsPageByState(userId, state, cursor, size, true));
+        }
         return ResponseEntity.ok(bookingService.getAllBookingsByState(userId, state, from, size, true));
     }
+
+    @GetMapping(path = "/export", produces = NDJSON)
+    @LogExecution(withArgs = true)
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @RequestParam(defaultValue = "ALL", required = false) String state) {
+        return toStream(bookingService.exportBookingsByState(userId, state, false));
+    }
+
+    @GetMapping(path = "/owner/export", produces = NDJSON)
+    @LogExecution(withArgs = true)
+    public ResponseEntity<StreamingResponseBody> exportBookingsByItemOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                           @RequestParam(defaultValue = "ALL", required = false) String state) {
+        return toStream(bookingService.exportBookingsByState(userId, state, true));
+    }
+
+    /**
+     * Пишет бронирования в ответ по одному JSON-объекту на строку, не собирая их в список.
+     */
+    private ResponseEntity<StreamingResponseBody> toStream(BookingExport export) {
+        ObjectWriter writer = objectMapper.writerFor(BookingResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                export.forEach(booking -> {
+                    try {
+                        writer.writeValue(generator, booking);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    private static boolean isCursorPaging(String paging, String cursor) {
+        if (cursor != null || CURSOR_PAGING.equalsIgnoreCase(paging)) {
+            return true;
+        }
+        if (OFFSET_PAGING.equalsIgnoreCase(paging)) {
+            return false;
+        }
+        throw new ValidationException(String.format("Неизвестный способ постраничного вывода: %s", paging));
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+public class BookingConfirmationRequestDto {
+    @NotEmpty(message = "Не указаны бронирования для подтверждения")
+    @Size(max = 100, message = "За один запрос можно подтвердить не более 100 бронирований")
+    private List<@NotNull(message = "Указан пустой Id бронирования") Long> bookingIds;
+
+    @NotNull(message = "Не указано решение по бронированиям")
+    private Boolean approved;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Результат подтверждения одного бронирования из пакета: новый статус либо причина отказа.
+ */
+@Data
+@Builder
+public class BookingConfirmationResultDto {
+    private Long bookingId;
+    private BookingStatus status;
+    private String error;
+}
@@ -6,6 +6,7 @@ import ru.practicum.shareit.booking.dto.BookingDtoForItemResponseDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.item.dto.ItemForBookingResponseDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserForBookingResponseDto;
@@ -22,6 +23,12 @@ public interface BookingMapper {
     @Mapping(target = "bookerId", source = "booking.booker.id")
     BookingDtoForItemResponseDto bookingForItemResponseDto(Booking booking);
 
+    BookingDtoForItemResponseDto bookingIntervalForItemResponseDto(BookingInterval bookingInterval);
+
+    @Mapping(target = "itemId", source = "booking.item.id")
+    @Mapping(target = "bookerId", source = "booking.booker.id")
+    BookingInterval bookingToInterval(Booking booking);
+
     UserForBookingResponseDto userToDtoForBookingResponseDto(User user);
 
     ItemForBookingResponseDto itemToDtoForBookingResponseDto(Item item);
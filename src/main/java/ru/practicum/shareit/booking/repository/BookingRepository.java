@@ -1,39 +1,78 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId, Pageable page);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable page);
-
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable page);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable page);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(Long bookerId, LocalDateTime start, LocalDateTime end, Pageable page);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime start, LocalDateTime end, Pageable page);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable page);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable page);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable page);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long bookerId, Pageable page);
-
-    Optional<Booking> findFirstByItemIdAndStatusAndStartBeforeOrderByEndDesc(Long itemId, BookingStatus status, LocalDateTime start);
-
-    Optional<Booking> findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(Long itemId, BookingStatus status, LocalDateTime start);
-
-    Optional<Booking> findFirstByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long bookerId, BookingStatus status, LocalDateTime end);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    /**
+     * Загружает бронирование с блокировкой строки до конца транзакции, чтобы параллельные
+     * подтверждения одного бронирования выполнялись по очереди.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b join fetch b.item join fetch b.booker where b.id = ?1")
+    Optional<Booking> findForUpdateById(Long id);
+
+    /**
+     * Последние бронирования вещей: начавшиеся до {@code now}, с самым поздним окончанием,
+     * при равном окончании - с большим id. По одному на вещь.
+     */
+    @Query(" select b from Booking b " +
+            "where b.item.id in ?1 and b.status = ?2 and b.start < ?3 " +
+            "  and not exists (select l from Booking l " +
+            "                  where l.item = b.item and l.status = ?2 and l.start < ?3 " +
+            "                    and (l.end > b.end or l.end = b.end and l.id > b.id))")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    /**
+     * Ближайшие бронирования вещей: начинающиеся после {@code now}, с самым ранним началом,
+     * при равном начале - с меньшим id. По одному на вещь.
+     */
+    @Query(" select b from Booking b " +
+            "where b.item.id in ?1 and b.status = ?2 and b.start > ?3 " +
+            "  and not exists (select n from Booking n " +
+            "                  where n.item = b.item and n.status = ?2 and n.start > ?3 " +
+            "                    and (n.start < b.start or n.start = b.start and n.id < b.id))")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    @Query(" select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = ?1 and b.booker.id = ?2 and b.status = ?3 and b.end < ?4")
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long bookerId, BookingStatus status, LocalDateTime end);
+
+    @Query(" select new ru.practicum.shareit.booking.model.BookingInterval(b.id, b.item.id, b.booker.id, b.start, b.end, b.status) " +
+            "from Booking b " +
+            "where b.status in ?1")
+    List<BookingInterval> findAllIntervalsByStatusIn(Collection<BookingStatus> statuses);
+
+    /**
+     * Загружает бронирования с блокировкой строк до конца транзакции. Строки блокируются
+     * в порядке идентификаторов, поэтому пересекающиеся пакетные подтверждения не взаимоблокируются.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b join fetch b.item where b.id in ?1 order by b.id")
+    List<Booking> findAllForUpdateWithItemByIdIn(Collection<Long> ids);
+
+    /**
+     * Меняет статус бронирований одним запросом. Уже подтвержденные бронирования не затрагиваются.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(" update Booking b set b.status = ?2 " +
+            "where b.id in ?1 and b.status <> ru.practicum.shareit.booking.model.BookingStatus.APPROVED")
+    int updateStatus(Collection<Long> ids, BookingStatus status);
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Возвращает страницу бронирований вместе с вещью и автором без дополнительного запроса count.
+     */
+    List<Booking> findSlice(Specification<Booking> specification, Pageable page);
+
+    /**
+     * Отдает бронирования вместе с вещью и автором потоком, выбирая строки из базы порциями.
+     * Контекст персистентности периодически очищается, поэтому поток нужно читать внутри
+     * транзакции и не рассчитывать на управляемость уже прочитанных сущностей.
+     */
+    Stream<Booking> streamAll(Specification<Booking> specification, Sort sort);
+}
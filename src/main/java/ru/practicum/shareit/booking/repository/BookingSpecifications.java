@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingState;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> bookedBy(Long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> ownedBy(Long ownerId) {
+        return (root, query, builder) -> builder.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        return (root, query, builder) -> {
+            switch (state) {
+                case CURRENT:
+                    return builder.and(builder.lessThan(root.get("start"), now),
+                            builder.greaterThan(root.get("end"), now));
+                case FUTURE:
+                    return builder.greaterThan(root.get("start"), now);
+                case PAST:
+                    return builder.lessThan(root.get("end"), now);
+                case WAITING:
+                    return builder.equal(root.get("status"), BookingStatus.WAITING);
+                case REJECTED:
+                    return builder.equal(root.get("status"), BookingStatus.REJECTED);
+                default:
+                    return builder.conjunction();
+            }
+        };
+    }
+
+    /**
+     * Бронирования, идущие после курсора при сортировке по (start, id) в прямом или обратном порядке.
+     */
+    public static Specification<Booking> after(PageCursor cursor, boolean ascending) {
+        if (ascending) {
+            return (root, query, builder) -> builder.or(
+                    builder.greaterThan(root.get("start"), cursor.getKey()),
+                    builder.and(builder.equal(root.get("start"), cursor.getKey()),
+                            builder.greaterThan(root.get("id"), cursor.getId())));
+        }
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("start"), cursor.getKey()),
+                builder.and(builder.equal(root.get("start"), cursor.getKey()),
+                        builder.lessThan(root.get("id"), cursor.getId())));
+    }
+}
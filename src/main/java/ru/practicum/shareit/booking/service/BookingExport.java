@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.util.function.Consumer;
+
+/**
+ * Отложенная выгрузка бронирований. Бронирования читаются из базы потоком
+ * только при вызове {@link #forEach(Consumer)}.
+ */
+@FunctionalInterface
+public interface BookingExport {
+
+    void forEach(Consumer<BookingResponseDto> action);
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс активных бронирований по вещам: для каждой вещи хранит интервалы,
+ * упорядоченные по (start, id), и отвечает на вопросы о занятости,
+ * последнем и следующем подтвержденном бронировании без обращения к БД.
+ * <p>
+ * Уже сохраненные бронирования могут пересекаться, поэтому проверка занятости просматривает все интервалы,
+ * которые могут задеть окно: начавшиеся до его конца, но не раньше, чем за самую большую длительность
+ * до его начала. Завершившиеся интервалы вытесняются: новые бронирования начинаются не в прошлом,
+ * а для последнего бронирования вещи хранится только лучшее из завершившихся.
+ * <p>
+ * Последнее бронирование определяется так же, как в {@code BookingRepository.findLastBookingsByItemIds}:
+ * подтвержденное, начавшееся до текущего момента, с самым поздним окончанием, при равном окончании - с большим id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final Comparator<BookingInterval> ORDER = Comparator.comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getId);
+    private static final Comparator<BookingInterval> LAST_ORDER = Comparator.comparing(BookingInterval::getEnd)
+            .thenComparing(BookingInterval::getId);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, ItemTimeline> loaded = new HashMap<>();
+        List<BookingInterval> intervals = bookingRepository.findAllIntervalsByStatusIn(ACTIVE_STATUSES);
+        intervals.forEach(interval -> loaded.computeIfAbsent(interval.getItemId(), itemId -> new ItemTimeline())
+                .put(interval));
+        LocalDateTime now = LocalDateTime.now();
+        loaded.values().forEach(timeline -> timeline.prune(now));
+        timelines.clear();
+        timelines.putAll(loaded);
+        log.info("Booking interval index loaded {} bookings for {} items", intervals.size(), loaded.size());
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return isFree(itemId, start, end, null);
+    }
+
+    /**
+     * Проверяет занятость интервала, не считая самого бронирования {@code bookingId}:
+     * так проверяется, можно ли подтвердить уже существующее бронирование.
+     */
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end, Long bookingId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null || !timeline.overlaps(start, end, bookingId);
+    }
+
+    public Optional<BookingInterval> findLast(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null ? Optional.empty() : Optional.ofNullable(timeline.lastApprovedBefore(now));
+    }
+
+    public Optional<BookingInterval> findNext(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null ? Optional.empty() : Optional.ofNullable(timeline.firstApprovedAfter(now));
+    }
+
+    /**
+     * Добавляет бронирование или обновляет его статус. При откате текущей транзакции
+     * индекс возвращается к предыдущему состоянию.
+     */
+    public void put(BookingInterval interval) {
+        ItemTimeline timeline = timelines.computeIfAbsent(interval.getItemId(), itemId -> new ItemTimeline());
+        BookingInterval previous = timeline.put(interval);
+        timeline.prune(LocalDateTime.now());
+        TransactionCallbacks.afterRollback(() -> {
+            if (previous == null) {
+                timeline.remove(interval);
+            } else {
+                timeline.put(previous);
+            }
+        });
+    }
+
+    /**
+     * Число интервалов, которые индекс хранит для вещи.
+     */
+    int size(Long itemId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null ? 0 : timeline.size();
+    }
+
+    private static BookingInterval probe(LocalDateTime start, Long id) {
+        return BookingInterval.builder().start(start).id(id).build();
+    }
+
+    private static final class ItemTimeline {
+        private final NavigableSet<BookingInterval> active = new TreeSet<>(ORDER);
+        private final NavigableSet<BookingInterval> approved = new TreeSet<>(ORDER);
+        private Duration longest = Duration.ZERO;
+        private BookingInterval lastEnded;
+
+        synchronized BookingInterval put(BookingInterval interval) {
+            BookingInterval previous = remove(interval);
+            if (ACTIVE_STATUSES.contains(interval.getStatus())) {
+                active.add(interval);
+                Duration duration = Duration.between(interval.getStart(), interval.getEnd());
+                if (duration.compareTo(longest) > 0) {
+                    longest = duration;
+                }
+            }
+            if (interval.getStatus() == BookingStatus.APPROVED) {
+                approved.add(interval);
+            }
+            return previous;
+        }
+
+        synchronized BookingInterval remove(BookingInterval interval) {
+            if (lastEnded != null && lastEnded.getId().equals(interval.getId())) {
+                BookingInterval previous = lastEnded;
+                lastEnded = null;
+                return previous;
+            }
+            BookingInterval previous = active.ceiling(interval);
+            active.remove(interval);
+            approved.remove(interval);
+            return previous != null && ORDER.compare(previous, interval) == 0 ? previous : null;
+        }
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end, Long ignoredId) {
+            // Интервал, который начался раньше start - longest, закончился до start.
+            NavigableSet<BookingInterval> candidates = active.subSet(
+                    probe(start.minus(longest), Long.MIN_VALUE), true, probe(end, Long.MIN_VALUE), false);
+            for (BookingInterval candidate : candidates) {
+                if (candidate.getEnd().isAfter(start) && !candidate.getId().equals(ignoredId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Убирает интервалы, завершившиеся к {@code now}. Из подтвержденных запоминается последний.
+         */
+        synchronized void prune(LocalDateTime now) {
+            List<BookingInterval> ended = new ArrayList<>();
+            for (BookingInterval interval : active.headSet(probe(now, Long.MIN_VALUE), false)) {
+                if (!interval.getEnd().isAfter(now)) {
+                    ended.add(interval);
+                }
+            }
+            if (ended.isEmpty()) {
+                return;
+            }
+            for (BookingInterval interval : ended) {
+                active.remove(interval);
+                if (approved.remove(interval) && (lastEnded == null || LAST_ORDER.compare(interval, lastEnded) > 0)) {
+                    lastEnded = interval;
+                }
+            }
+            longest = active.stream()
+                    .map(interval -> Duration.between(interval.getStart(), interval.getEnd()))
+                    .max(Duration::compareTo)
+                    .orElse(Duration.ZERO);
+        }
+
+        synchronized BookingInterval lastApprovedBefore(LocalDateTime now) {
+            BookingInterval last = lastEnded != null && lastEnded.getStart().isBefore(now) ? lastEnded : null;
+            // Начавшихся, но не вытесненных подтвержденных интервалов обычно не больше одного-двух.
+            for (BookingInterval candidate : approved.headSet(probe(now, Long.MIN_VALUE), false)) {
+                if (last == null || LAST_ORDER.compare(candidate, last) > 0) {
+                    last = candidate;
+                }
+            }
+            return last;
+        }
+
+        synchronized BookingInterval firstApprovedAfter(LocalDateTime now) {
+            return approved.higher(probe(now, Long.MAX_VALUE));
+        }
+
+        synchronized int size() {
+            return active.size() + (lastEnded == null ? 0 : 1);
+        }
+    }
+}
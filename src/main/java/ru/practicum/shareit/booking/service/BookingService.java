@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingConfirmationRequestDto;
+import ru.practicum.shareit.booking.dto.BookingConfirmationResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
@@ -13,11 +16,29 @@ public interface BookingService {
 
     BookingResponseDto bookingConfirmation(Long userId, Long bookingId, Boolean approved);
 
+    /**
+     * Подтверждает или отклоняет несколько бронирований в одной транзакции.
+     * Бронирования, которые нельзя изменить, не прерывают обработку остальных, а возвращаются с причиной отказа.
+     */
+    List<BookingConfirmationResultDto> bookingsConfirmation(Long userId, BookingConfirmationRequestDto request);
+
     List<BookingResponseDto> getAllBookingsByState(Long userId,
                                                    String state,
                                                    Integer from,
                                                    Integer size,
                                                    Boolean hasOwner);
 
+    BookingPageDto getBookingsPageByState(Long userId,
+                                          String state,
+                                          String cursor,
+                                          Integer size,
+                                          Boolean hasOwner);
+
     BookingResponseDto getBookingById(Long userId, Long bookingId);
+
+    /**
+     * Проверяет пользователя и состояние сразу, а бронирования отдает потоком
+     * в отдельной читающей транзакции при обходе выгрузки.
+     */
+    BookingExport exportBookingsByState(Long userId, String state, Boolean hasOwner);
 }
@@ -3,11 +3,20 @@ package ru.practicum.shareit.booking.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingConfirmationRequestDto;
+import ru.practicum.shareit.booking.dto.BookingConfirmationResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.EntityNotFoundException;
@@ -18,29 +27,47 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.PageCursor;
+import ru.practicum.shareit.util.StripedLock;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
+    private static final int ITEM_LOCK_STRIPES = 64;
+    private static final Sort SEEK_ORDER = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+    private static final Sort CURRENT_BOOKER_ORDER = Sort.by(Sort.Order.asc("start"), Sort.Order.asc("id"));
+
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingMapper bookingMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingsUpdater itemBookingsUpdater;
+    private final PlatformTransactionManager transactionManager;
+    private final StripedLock itemLocks = new StripedLock(ITEM_LOCK_STRIPES);
 
     @Override
+    @Transactional
     public BookingResponseDto create(Long userId, BookingRequestDto bookingRequestDto) {
         checkBookingDate(bookingRequestDto);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(User.class, String.format("ID: %s", userId)));
+        userService.checkExists(userId);
+        User user = userRepository.getReferenceById(userId);
         Item item = itemRepository.findById(bookingRequestDto.getItemId())
                 .orElseThrow(() -> new EntityNotFoundException(Item.class, String.format("ID: %s", bookingRequestDto.getItemId())));
 
@@ -57,12 +84,22 @@ public class BookingServiceImpl implements BookingService {
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
 
-        return bookingMapper.bookingToResponseDto(bookingRepository.save(booking));
+        Lock itemLock = itemLocks.get(item.getId());
+        itemLock.lock();
+        try {
+            if (!bookingIntervalIndex.isFree(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd())) {
+                throw new ValidationException("Предмет уже забронирован на указанный период.");
+            }
+            return saveAndIndex(booking);
+        } finally {
+            itemLock.unlock();
+        }
     }
 
     @Override
+    @Transactional
     public BookingResponseDto bookingConfirmation(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(
+        Booking booking = bookingRepository.findForUpdateById(bookingId).orElseThrow(
                 () -> new EntityNotFoundException(Booking.class, String.format("ID: %s", bookingId)));
         if (!booking.getItem().getOwner().getId().equals(userId)) {
             throw new EntityNotFoundException("Указанный пользователь не является владельцем предмета.");
@@ -70,8 +107,75 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus().equals(APPROVED)) {
             throw new ValidationException("Данное бронирование уже подтверждено.");
         }
-        booking.setStatus((approved) ? APPROVED : BookingStatus.REJECTED);
-        return bookingMapper.bookingToResponseDto(bookingRepository.save(booking));
+        BookingResponseDto response;
+        Lock itemLock = itemLocks.get(booking.getItem().getId());
+        itemLock.lock();
+        try {
+            if (approved && !isFreeFor(booking)) {
+                throw new ValidationException("Предмет уже забронирован на указанный период.");
+            }
+            booking.setStatus((approved) ? APPROVED : BookingStatus.REJECTED);
+            response = saveAndIndex(booking);
+        } finally {
+            itemLock.unlock();
+        }
+        if (approved) {
+            itemBookingsUpdater.refresh(List.of(booking.getItem().getId()), LocalDateTime.now());
+        }
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingConfirmationResultDto> bookingsConfirmation(Long userId, BookingConfirmationRequestDto request) {
+        userService.checkExists(userId);
+        BookingStatus status = request.getApproved() ? APPROVED : BookingStatus.REJECTED;
+        List<Long> bookingIds = request.getBookingIds().stream()
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Booking> bookings = bookingRepository.findAllForUpdateWithItemByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingConfirmationResultDto> results = new ArrayList<>(bookingIds.size());
+        List<BookingInterval> confirmed = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            Booking booking = bookings.get(bookingId);
+            String error = confirmationError(userId, booking);
+            BookingInterval interval = null;
+            if (error == null) {
+                interval = new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                        booking.getStart(), booking.getEnd(), status);
+                error = admit(interval);
+            }
+            if (error != null) {
+                results.add(BookingConfirmationResultDto.builder()
+                        .bookingId(bookingId)
+                        .error(error).build());
+                continue;
+            }
+            confirmed.add(interval);
+            results.add(BookingConfirmationResultDto.builder()
+                    .bookingId(bookingId)
+                    .status(status).build());
+        }
+        if (confirmed.isEmpty()) {
+            return results;
+        }
+
+        int updated = bookingRepository.updateStatus(confirmed.stream()
+                .map(BookingInterval::getId)
+                .collect(Collectors.toList()), status);
+        if (updated != confirmed.size()) {
+            // Строки заблокированы с момента проверки, поэтому расхождение означает ошибку, а не гонку.
+            throw new IllegalStateException(String.format("Updated %d of %d bookings", updated, confirmed.size()));
+        }
+        if (status == APPROVED) {
+            itemBookingsUpdater.refresh(confirmed.stream()
+                    .map(BookingInterval::getItemId)
+                    .distinct()
+                    .collect(Collectors.toList()), LocalDateTime.now());
+        }
+        return results;
     }
 
     @Override
@@ -80,30 +184,50 @@ public class BookingServiceImpl implements BookingService {
                                                           Integer from,
                                                           Integer size,
                                                           Boolean hasOwner) {
-        userService.findById(userId);
-        List<Booking> bookings;
-        BookingState state;
-        try {
-            state = BookingState.valueOf(bookingState);
-        } catch (Exception e) {
-            throw new UnsupportedStatusException(bookingState);
-        }
+        userService.checkExists(userId);
+        BookingState state = parseState(bookingState);
+        Pageable page = PageRequest.of(from > 0 ? from / size : 0, size, order(state, hasOwner));
 
-        Pageable page = PageRequest.of(from > 0 ? from / size : 0, size);
-
-        if (hasOwner) {
-            bookings = getAllBookingsByStateForOwner(userId, state, page);
-        } else {
-            bookings = getAllBookingsByStateWithoutOwner(userId, state, page);
-        }
-        return bookings.stream()
+        return bookingRepository.findSlice(byState(userId, state, hasOwner, LocalDateTime.now()), page)
+                .stream()
                 .map(bookingMapper::bookingToResponseDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public BookingPageDto getBookingsPageByState(Long userId,
+                                                 String bookingState,
+                                                 String cursor,
+                                                 Integer size,
+                                                 Boolean hasOwner) {
+        userService.checkExists(userId);
+        BookingState state = parseState(bookingState);
+
+        Sort sort = order(state, hasOwner);
+        Specification<Booking> specification = byState(userId, state, hasOwner, LocalDateTime.now());
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(after(PageCursor.decode(cursor), sort == CURRENT_BOOKER_ORDER));
+        }
+
+        List<Booking> bookings = bookingRepository.findSlice(specification, PageRequest.of(0, size + 1, sort));
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            Booking last = bookings.get(size - 1);
+            nextCursor = PageCursor.of(last.getStart(), last.getId()).encode();
+        }
+
+        return BookingPageDto.builder()
+                .bookings(bookings.stream()
+                        .map(bookingMapper::bookingToResponseDto)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     @Override
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
-        userService.findById(userId);
+        userService.checkExists(userId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(
                 () -> new EntityNotFoundException(Booking.class, String.format("ID: %s", bookingId)));
         if (!booking.getBooker().getId().equals(userId) &&
@@ -113,68 +237,86 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.bookingToResponseDto(booking);
     }
 
-    private List<Booking> getAllBookingsByStateForOwner(Long userId, BookingState state, Pageable page) {
-        List<Booking> bookings;
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(),
-                        page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(userId,
-                        LocalDateTime.now(),
-                        page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId,
-                        BookingStatus.WAITING,
-                        page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId,
-                        BookingStatus.REJECTED,
-                        page);
-                break;
-            default:
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(userId, page);
-                break;
-        }
-        return bookings;
+    @Override
+    public BookingExport exportBookingsByState(Long userId, String bookingState, Boolean hasOwner) {
+        userService.checkExists(userId);
+        BookingState state = parseState(bookingState);
+        Specification<Booking> specification = byState(userId, state, hasOwner, LocalDateTime.now());
+        Sort sort = order(state, hasOwner);
+
+        return action -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<Booking> bookings = bookingRepository.streamAll(specification, sort)) {
+                    bookings.map(bookingMapper::bookingToResponseDto).forEach(action);
+                }
+            });
+        };
+    }
+
+    /**
+     * Порядок выдачи, общий для постраничного вывода, курсоров и выгрузки: текущие бронирования
+     * арендатора идут от ранних к поздним, остальные списки — от новых к старым.
+     */
+    private Sort order(BookingState state, Boolean hasOwner) {
+        return !hasOwner && state == BookingState.CURRENT ? CURRENT_BOOKER_ORDER : SEEK_ORDER;
+    }
+
+    private Specification<Booking> byState(Long userId, BookingState state, Boolean hasOwner, LocalDateTime now) {
+        return (hasOwner ? ownedBy(userId) : bookedBy(userId)).and(inState(state, now));
+    }
+
+    private String confirmationError(Long userId, Booking booking) {
+        if (booking == null) {
+            return "Бронирование не найдено.";
+        }
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            return "Указанный пользователь не является владельцем предмета.";
+        }
+        if (booking.getStatus().equals(APPROVED)) {
+            return "Данное бронирование уже подтверждено.";
+        }
+        return null;
+    }
+
+    /**
+     * Под блокировкой вещи проверяет, что подтверждаемое бронирование не пересекается с другими
+     * активными, и сразу заносит новый статус в индекс, чтобы следующая проверка его учитывала.
+     * Возвращает текст ошибки или {@code null}.
+     */
+    private String admit(BookingInterval interval) {
+        Lock itemLock = itemLocks.get(interval.getItemId());
+        itemLock.lock();
+        try {
+            if (interval.getStatus() == APPROVED && !bookingIntervalIndex.isFree(interval.getItemId(),
+                    interval.getStart(), interval.getEnd(), interval.getId())) {
+                return "Предмет уже забронирован на указанный период.";
+            }
+            bookingIntervalIndex.put(interval);
+            return null;
+        } finally {
+            itemLock.unlock();
+        }
+    }
+
+    private boolean isFreeFor(Booking booking) {
+        return bookingIntervalIndex.isFree(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                booking.getId());
+    }
+
+    private BookingState parseState(String bookingState) {
+        try {
+            return BookingState.valueOf(bookingState);
+        } catch (Exception e) {
+            throw new UnsupportedStatusException(bookingState);
+        }
     }
 
-    private List<Booking> getAllBookingsByStateWithoutOwner(Long userId, BookingState state, Pageable page) {
-        List<Booking> bookings;
-        switch (state) {
-            case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(userId,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, page);
-                break;
-            default:
-                bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page);
-                break;
-        }
-        return bookings;
+    private BookingResponseDto saveAndIndex(Booking booking) {
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingIntervalIndex.put(bookingMapper.bookingToInterval(savedBooking));
+        return bookingMapper.bookingToResponseDto(savedBooking);
     }
 
     private void checkBookingDate(BookingRequestDto bookingRequestDto) {
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+
+/**
+ * Поддерживает у вещей ссылки на последнее и ближайшее подтвержденные бронирования.
+ * Ссылки пересчитываются при подтверждении бронирования, а по расписанию сдвигаются
+ * у вещей, чье ближайшее бронирование уже началось.
+ * <p>
+ * Строки вещей блокируются до выборки бронирований: параллельные пересчеты одной вещи
+ * идут по очереди, и последний записывает ссылки, посчитанные по самым свежим данным.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingsUpdater {
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    @Transactional
+    public void refresh(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        List<Item> items = itemRepository.findAllForUpdateByIdIn(itemIds);
+        Map<Long, Booking> lastBookings = groupFirstByItemId(
+                bookingRepository.findLastBookingsByItemIds(itemIds, APPROVED, now));
+        Map<Long, Booking> nextBookings = groupFirstByItemId(
+                bookingRepository.findNextBookingsByItemIds(itemIds, APPROVED, now));
+
+        items.forEach(item -> {
+            item.setLastBooking(lastBookings.get(item.getId()));
+            item.setNextBooking(nextBookings.get(item.getId()));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-sweep-interval}")
+    @Transactional
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = itemRepository.findIdsWithNextBookingStartedBefore(now);
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        refresh(itemIds, now);
+        log.info("Rolled last/next bookings forward for {} items", itemIds.size());
+    }
+
+    private Map<Long, Booking> groupFirstByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(),
+                        Function.identity(),
+                        (first, second) -> first));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Подключение к реплике для read-only транзакций. Настройки пула задаются в {@code shareit.datasource.replica.hikari}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private String url;
+
+    private String driverClassName;
+
+    private String username;
+
+    private String password;
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки кэша второго уровня Hibernate: отдельный регион на каждую кэшируемую сущность.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.cache")
+public class SecondLevelCacheProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Region> regions = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        private long maximumSize = 10_000;
+
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
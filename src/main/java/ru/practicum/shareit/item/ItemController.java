@@ -6,13 +6,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemBooked;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemNameTrie;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.util.LogExecution;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 @RestController
@@ -21,6 +27,9 @@ import java.util.List;
 @Validated
 public class ItemController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_COMMENTS_PAGE = 100;
+
     private final ItemService itemService;
 
     @PostMapping
@@ -31,6 +40,17 @@ public class ItemController {
                 .body(itemService.create(userId, itemDto));
     }
 
+    @PostMapping("/batch")
+    @LogExecution
+    public ResponseEntity<List<ItemDto>> createAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestBody
+                                                   @NotEmpty(message = "Список вещей пуст.")
+                                                   @Size(max = 1000, message = "За один запрос можно создать не более 1000 вещей.")
+                                                   List<@Valid ItemDto> itemDtos) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(itemService.createAll(userId, itemDtos));
+    }
+
     @PatchMapping("/{itemId}")
     @LogExecution(withArgs = true)
     public ResponseEntity<ItemDto> update(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -71,6 +91,14 @@ public class ItemController {
         return ResponseEntity.ok(itemService.search(userId, text, from, size));
     }
 
+    @GetMapping("/autocomplete")
+    @LogExecution
+    public ResponseEntity<List<String>> autocomplete(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @RequestParam("prefix") @NotBlank String prefix,
+                                                     @RequestParam(required = false, defaultValue = "10") @Min(1) @Max(ItemNameTrie.MAX_SUGGESTIONS) Integer limit) {
+        return ResponseEntity.ok(itemService.autocomplete(userId, prefix, limit));
+    }
+
     @PostMapping("/{itemId}/comment")
     @LogExecution(withArgs = true)
     public ResponseEntity<CommentDto> createComment(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -78,4 +106,18 @@ public class ItemController {
                                                     @RequestBody @Valid CommentDto commentDto) {
         return ResponseEntity.ok().body(itemService.createComment(userId, itemId, commentDto));
     }
+
+    @GetMapping("/{itemId}/comments")
+    @LogExecution(withArgs = true)
+    public ResponseEntity<List<CommentDto>> getComments(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @PathVariable("itemId") Long itemId,
+                                                        @RequestParam(required = false, defaultValue = "10") @Min(1) @Max(MAX_COMMENTS_PAGE) Integer size,
+                                                        @RequestParam(required = false) String cursor) {
+        CommentPageDto page = itemService.getComments(userId, itemId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getComments());
+    }
 }
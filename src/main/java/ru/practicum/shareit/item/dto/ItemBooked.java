@@ -15,5 +15,6 @@ public class ItemBooked {
     private Boolean available;
     private BookingDtoForItemResponseDto lastBooking;
     private BookingDtoForItemResponseDto nextBooking;
+    private Integer commentCount;
     private List<CommentDto> comments;
 }
@@ -12,6 +12,8 @@ public interface ItemMapper {
 
     Item itemFromDto(ItemDto itemDto);
 
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
     ItemBooked itemToItemBooked(Item item);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
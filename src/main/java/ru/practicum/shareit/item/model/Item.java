@@ -1,6 +1,10 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.itemRequest.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -13,10 +17,14 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
+@DynamicUpdate
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -37,6 +45,29 @@ public class Item {
     @ToString.Exclude
     private ItemRequest request;
 
+    /**
+     * Последнее начавшееся подтвержденное бронирование, поддерживается {@code ItemBookingsUpdater}.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    @ToString.Exclude
+    private Booking lastBooking;
+
+    /**
+     * Ближайшее еще не начавшееся подтвержденное бронирование, поддерживается {@code ItemBookingsUpdater}.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    @ToString.Exclude
+    private Booking nextBooking;
+
+    /**
+     * Число отзывов о вещи, увеличивается при добавлении отзыва. Обновления вещи пишут только
+     * измененные колонки, поэтому устаревшее значение счетчика не попадает обратно в базу.
+     */
+    @Column(name = "comment_count", nullable = false)
+    private int commentCount;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,13 +1,41 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentsRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItem(Item item);
+    @Query(" select c from Comment c join fetch c.author " +
+            "where c.item.id = ?1 " +
+            "order by c.created desc, c.id desc")
+    List<Comment> findAllByItemIdOrderByCreatedDescIdDesc(Long itemId, Pageable page);
+
+    /**
+     * Следующая страница отзывов после отзыва с временем {@code created} и идентификатором {@code id}.
+     */
+    @Query(" select c from Comment c join fetch c.author " +
+            "where c.item.id = ?1 " +
+            "  and (c.created < ?2 or (c.created = ?2 and c.id < ?3)) " +
+            "order by c.created desc, c.id desc")
+    List<Comment> findAllByItemIdBefore(Long itemId, Instant created, Long id, Pageable page);
+
+    /**
+     * Идентификаторы последних {@code limit} отзывов каждой из вещей.
+     */
+    @Query(value = "select ranked.id from (" +
+            "    select c.id, row_number() over (partition by c.item_id order by c.created desc, c.id desc) as comment_rank " +
+            "    from comments c " +
+            "    where c.item_id in ?1) ranked " +
+            "where ranked.comment_rank <= ?2", nativeQuery = true)
+    List<Number> findLatestIdsByItemIdIn(Collection<Long> itemIds, int limit);
+
+    @Query(" select c from Comment c join fetch c.author where c.id in ?1 order by c.created desc, c.id desc")
+    List<Comment> findAllWithAuthorByIdIn(Collection<Long> ids);
 }
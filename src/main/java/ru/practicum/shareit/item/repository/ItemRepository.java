@@ -1,20 +1,63 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Вещи владельца. Условие записано по внешнему ключу: производный запрос присоединял бы
+     * таблицу пользователей и фильтровал по ней, не используя индекс по владельцу.
+     */
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    @Query("select i from Item i where i.owner.id = ?1")
     List<Item> findAllByOwner_Id(Long userId, Pageable page);
 
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    Optional<Item> findWithBookingsById(Long itemId);
+
+    /**
+     * Загружает вещь из базы в обход кэша с блокировкой строки до конца транзакции, чтобы параллельные
+     * изменения вещи и отзывы не затирали друг друга.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findForUpdateById(Long itemId);
+
+    /**
+     * Загружает вещи с блокировкой строк до конца транзакции. Строки блокируются в порядке
+     * идентификаторов, поэтому пересекающиеся наборы вещей не взаимоблокируются.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findAllForUpdateByIdIn(Collection<Long> itemIds);
+
+    @Query("select i from Item i where i.request.id in ?1")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
     @Query(" select i from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "   or upper(i.description) like upper(concat('%', ?1, '%')))" +
             "   and i.available = true ")
     List<Item> search(String text, Pageable page);
+
+    @Query(" select i.name from Item i " +
+            "where upper(i.name) like upper(concat(?1, '%')) and i.available = true " +
+            "group by i.name " +
+            "order by count(i) desc, i.name")
+    List<String> findNamesByPrefix(String prefix, Pageable page);
+
+    @Query("select i.id from Item i where i.nextBooking.start <= ?1")
+    List<Long> findIdsWithNextBookingStartedBefore(LocalDateTime now);
 }
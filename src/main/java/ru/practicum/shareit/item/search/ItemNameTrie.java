@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+
+/**
+ * Префиксное дерево по названиям доступных вещей для автодополнения.
+ * Одинаковые без учета регистра названия хранятся в одном узле вместе с числом вещей,
+ * подсказки упорядочиваются по этому числу, затем по алфавиту.
+ * Лучшие подсказки поддерева вычисляются при первом запросе и запоминаются в узле,
+ * изменение названия сбрасывает их только на пути от корня до измененного узла.
+ */
+@Slf4j
+@Component
+public class ItemNameTrie extends RebuildableItemIndex<ItemNameTrie.Name> {
+
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private static final Comparator<Node> RANKING = Comparator.comparingInt((Node node) -> node.count).reversed()
+            .thenComparing(node -> node.display);
+
+    private final Map<Long, Name> names = new HashMap<>();
+    private Node root = new Node();
+
+    public ItemNameTrie(ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        super(itemRepository, transactionManager);
+    }
+
+    /**
+     * Возвращает не более {@code limit} названий доступных вещей, начинающихся с префикса.
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            List<Node> best = top(node);
+            List<String> result = new ArrayList<>(Math.min(limit, best.size()));
+            for (int i = 0; i < best.size() && i < limit; i++) {
+                result.add(best.get(i).display);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Лучшие названия поддерева. Вычисляется под блокировкой чтения: параллельные читатели
+     * могут посчитать один и тот же список, но записывают одинаковый результат.
+     */
+    private List<Node> top(Node node) {
+        List<Node> top = node.top;
+        if (top != null) {
+            return top;
+        }
+        List<Node> candidates = new ArrayList<>();
+        if (node.count > 0) {
+            candidates.add(node);
+        }
+        node.children.values().forEach(child -> candidates.addAll(top(child)));
+        candidates.sort(RANKING);
+        top = List.copyOf(candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())));
+        node.top = top;
+        return top;
+    }
+
+    @Override
+    protected Name valueOf(Item item) {
+        return Name.of(item);
+    }
+
+    @Override
+    protected Name put(Long itemId, Name name) {
+        Name previous = delete(itemId);
+        if (!name.isAvailable() || name.getKey().isEmpty()) {
+            return previous;
+        }
+        names.put(itemId, name);
+        Node node = root;
+        node.top = null;
+        for (int i = 0; i < name.getKey().length(); i++) {
+            node = node.children.computeIfAbsent(name.getKey().charAt(i), character -> new Node());
+            node.top = null;
+        }
+        if (node.count++ == 0) {
+            node.display = name.getDisplay();
+        }
+        return previous;
+    }
+
+    @Override
+    protected Name delete(Long itemId) {
+        Name previous = names.remove(itemId);
+        if (previous == null) {
+            return null;
+        }
+        String key = previous.getKey();
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].children.get(key.charAt(i));
+        }
+        for (Node node : path) {
+            node.top = null;
+        }
+        path[key.length()].count--;
+        for (int i = key.length(); i > 0 && path[i].count == 0 && path[i].children.isEmpty(); i--) {
+            path[i - 1].children.remove(key.charAt(i - 1));
+        }
+        return previous;
+    }
+
+    @Override
+    protected void clear() {
+        names.clear();
+        root = new Node();
+    }
+
+    @Override
+    protected void loaded(int items) {
+        log.info("Item name trie loaded {} names", names.size());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private String display;
+        private int count;
+        private volatile List<Node> top;
+    }
+
+    @Value
+    static class Name {
+        String key;
+        String display;
+        boolean available;
+
+        static Name of(Item item) {
+            return new Name(normalize(item.getName()), item.getName() == null ? "" : item.getName().trim(),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        }
+    }
+}
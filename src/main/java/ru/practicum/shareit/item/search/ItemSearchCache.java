@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов поиска вещей по нормализованному тексту и странице.
+ * Записи живут не дольше заданного времени, число записей ограничено.
+ * Вещь находится запросом, только если текст запроса входит в ее название или описание,
+ * поэтому при изменении вещи сбрасываются ровно те записи, чей текст входит в ее старый или новый текст.
+ * Сброс повторяется после завершения транзакции, а результат, прочитанный во время сброса, не кэшируется:
+ * проверка версии и запись результата выполняются под той же блокировкой, что и сброс.
+ * <p>
+ * При заданной реплике ({@code shareit.datasource.replica.url}) кэш отключен. Поиск читает с реплики,
+ * и результат, загруженный после сброса, мог быть прочитан до того, как изменение до нее дошло.
+ * Такая запись жила бы до истечения срока, а сброс о ней уже не знает. Поиск при этом
+ * все равно отвечает из in-memory индекса.
+ */
+@Slf4j
+@Component
+public class ItemSearchCache {
+
+    private final Cache<Key, List<ItemDto>> entries;
+    private final boolean enabled;
+    private final Object evictionLock = new Object();
+    private long version;
+
+    public ItemSearchCache(@Value("${shareit.items.search-cache.maximum-size}") int maximumSize,
+                           @Value("${shareit.items.search-cache.ttl}") Duration ttl,
+                           @Value("${shareit.datasource.replica.url:}") String replicaUrl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.enabled = replicaUrl == null || replicaUrl.isBlank();
+        if (!enabled) {
+            log.info("Item search cache is disabled because reads go to a replica");
+        }
+    }
+
+    public List<ItemDto> get(String text, Pageable page, Supplier<List<ItemDto>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(normalize(text), page.getOffset(), page.getPageSize());
+        List<ItemDto> cached = entries.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadedVersion;
+        synchronized (evictionLock) {
+            loadedVersion = version;
+        }
+        List<ItemDto> items = List.copyOf(loader.get());
+        synchronized (evictionLock) {
+            if (version == loadedVersion) {
+                entries.put(key, items);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Сбрасывает результаты, в которые могла попасть вещь с указанными названием и описанием.
+     */
+    public void evictMatching(String name, String description) {
+        if (!enabled) {
+            return;
+        }
+        String normalizedName = normalize(name);
+        String normalizedDescription = normalize(description);
+        evict(normalizedName, normalizedDescription);
+        TransactionCallbacks.afterCompletion(() -> evict(normalizedName, normalizedDescription));
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private void evict(String name, String description) {
+        synchronized (evictionLock) {
+            version++;
+            entries.asMap().keySet().removeIf(key -> name.contains(key.getText()) || description.contains(key.getText()));
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    @lombok.Value
+    private static class Key {
+        String text;
+        long offset;
+        int size;
+    }
+}
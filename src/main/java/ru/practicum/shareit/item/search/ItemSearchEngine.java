@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поисковый движок по доступным вещам: регистронезависимый поиск подстроки
+ * в названии или описании с ранжированием результатов.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Готов ли движок отвечать на запросы. Пока индекс не построен, поиск выполняется в БД.
+     */
+    boolean isReady();
+
+    /**
+     * Возвращает идентификаторы найденных вещей в порядке убывания релевантности.
+     */
+    List<Long> search(String text, Pageable page);
+
+    /**
+     * Добавляет вещь в индекс или обновляет ее.
+     */
+    void index(Item item);
+
+    /**
+     * Удаляет вещь из индекса.
+     */
+    void remove(Long itemId);
+}
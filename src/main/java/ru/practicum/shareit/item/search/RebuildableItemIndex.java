@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Основа in-memory индексов по вещам, которые строятся из БД целиком и затем поддерживаются
+ * изменениями из сервиса.
+ * <p>
+ * Вещи для перестроения читаются без блокировки индекса, поэтому изменения, пришедшие за время чтения,
+ * запоминаются и применяются поверх загруженного снимка: иначе снимок затер бы их. Чтение идет
+ * в пишущей транзакции, то есть с основной базы, а не с реплики, которая может отставать.
+ *
+ * @param <V> то, что индекс хранит о вещи
+ */
+abstract class RebuildableItemIndex<V> implements ApplicationListener<ApplicationReadyEvent> {
+
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final Object rebuildMonitor = new Object();
+    private List<Runnable> pending;
+    private volatile boolean ready;
+
+    protected RebuildableItemIndex(ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        rebuild();
+    }
+
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            writeLocked(() -> pending = new ArrayList<>());
+            List<Item> items;
+            try {
+                items = primaryTransaction.execute(status -> itemRepository.findAll());
+            } catch (RuntimeException e) {
+                writeLocked(() -> pending = null);
+                throw e;
+            }
+            writeLocked(() -> {
+                clear();
+                items.forEach(item -> put(item.getId(), valueOf(item)));
+                pending.forEach(Runnable::run);
+                pending = null;
+            });
+            ready = true;
+            loaded(items.size());
+        }
+    }
+
+    /**
+     * Готов ли индекс отвечать на запросы. Пока он не построен, запросы выполняются в БД.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Добавляет вещь в индекс или обновляет ее. При откате текущей транзакции восстанавливается
+     * предыдущая версия.
+     */
+    public void index(Item item) {
+        Long itemId = item.getId();
+        V previous = apply(itemId, valueOf(item));
+        TransactionCallbacks.afterRollback(() -> apply(itemId, previous));
+    }
+
+    /**
+     * Удаляет вещь из индекса. При откате текущей транзакции вещь возвращается в индекс.
+     */
+    public void remove(Long itemId) {
+        V previous = apply(itemId, null);
+        TransactionCallbacks.afterRollback(() -> apply(itemId, previous));
+    }
+
+    protected abstract V valueOf(Item item);
+
+    /**
+     * Кладет значение в индекс вместо прежнего и возвращает прежнее. Вызывается под блокировкой записи.
+     */
+    protected abstract V put(Long itemId, V value);
+
+    /**
+     * Удаляет значение из индекса и возвращает его. Вызывается под блокировкой записи.
+     */
+    protected abstract V delete(Long itemId);
+
+    /**
+     * Очищает индекс перед загрузкой снимка. Вызывается под блокировкой записи.
+     */
+    protected abstract void clear();
+
+    protected abstract void loaded(int items);
+
+    private V apply(Long itemId, V value) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(() -> write(itemId, value));
+            }
+            return write(itemId, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private V write(Long itemId, V value) {
+        return value == null ? delete(itemId) : put(itemId, value);
+    }
+
+    private void writeLocked(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
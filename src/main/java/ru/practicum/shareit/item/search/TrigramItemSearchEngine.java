@@ -0,0 +1,171 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory триграммный индекс по названиям и описаниям вещей.
+ * Кандидаты берутся из самого короткого списка вхождений триграмм запроса,
+ * после чего каждое совпадение проверяется и ранжируется: совпадение в названии
+ * весомее совпадения в описании, полное совпадение и совпадение с начала слова весомее вхождения в середину.
+ */
+@Slf4j
+@Component
+public class TrigramItemSearchEngine extends RebuildableItemIndex<TrigramItemSearchEngine.Document>
+        implements ItemSearchEngine {
+
+    private static final int GRAM = 3;
+    private static final int NAME_WEIGHT = 10;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::getScore).reversed()
+            .thenComparing(Match::getId);
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    public TrigramItemSearchEngine(ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        super(itemRepository, transactionManager);
+    }
+
+    @Override
+    public List<Long> search(String text, Pageable page) {
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            return candidates(query).stream()
+                    .map(documents::get)
+                    .filter(document -> document != null && document.isAvailable())
+                    .map(document -> new Match(document.getId(), document.score(query)))
+                    .filter(match -> match.getScore() > 0)
+                    .sorted(RANKING)
+                    .skip(page.getOffset())
+                    .limit(page.getPageSize())
+                    .map(Match::getId)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.keySet();
+        }
+        Set<Long> shortest = null;
+        for (String gram : trigrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            if (shortest == null || ids.size() < shortest.size()) {
+                shortest = ids;
+            }
+        }
+        return shortest;
+    }
+
+    @Override
+    protected Document valueOf(Item item) {
+        return Document.of(item);
+    }
+
+    @Override
+    protected Document put(Long itemId, Document document) {
+        Document previous = delete(itemId);
+        documents.put(itemId, document);
+        document.getTrigrams().forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>())
+                .add(itemId));
+        return previous;
+    }
+
+    @Override
+    protected Document delete(Long itemId) {
+        Document previous = documents.remove(itemId);
+        if (previous != null) {
+            previous.getTrigrams().forEach(gram -> {
+                Set<Long> ids = postings.get(gram);
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            });
+        }
+        return previous;
+    }
+
+    @Override
+    protected void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    @Override
+    protected void loaded(int items) {
+        log.info("Item search index loaded {} items, {} trigrams", items, postings.size());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String... values) {
+        Set<String> grams = new HashSet<>();
+        for (String value : values) {
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                grams.add(value.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+
+    private static int rank(String field, String query, int weight) {
+        int position = field.indexOf(query);
+        if (position < 0) {
+            return 0;
+        }
+        if (field.length() == query.length()) {
+            return weight * 4;
+        }
+        if (position == 0) {
+            return weight * 3;
+        }
+        if (!Character.isLetterOrDigit(field.charAt(position - 1))) {
+            return weight * 2;
+        }
+        return weight;
+    }
+
+    @Value
+    static class Document {
+        Long id;
+        String name;
+        String description;
+        boolean available;
+        Set<String> trigrams;
+
+        static Document of(Item item) {
+            String name = normalize(item.getName());
+            String description = normalize(item.getDescription());
+            return new Document(item.getId(), name, description, Boolean.TRUE.equals(item.getAvailable()),
+                    trigrams(name, description));
+        }
+
+        int score(String query) {
+            return rank(name, query, NAME_WEIGHT) + rank(description, query, DESCRIPTION_WEIGHT);
+        }
+    }
+
+    @Value
+    private static class Match {
+        Long id;
+        int score;
+    }
+}
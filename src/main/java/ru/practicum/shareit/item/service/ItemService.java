@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemBooked;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -9,8 +10,16 @@ import java.util.List;
 public interface ItemService {
     ItemDto create(Long userId, ItemDto itemDto);
 
+    /**
+     * Создает вещи одной транзакцией, вставки уходят в базу пакетами.
+     */
+    List<ItemDto> createAll(Long userId, List<ItemDto> itemDtos);
+
     ItemDto update(Long userId, Long itemId, ItemDto itemDto);
 
+    /**
+     * Вещь с последними отзывами и общим числом отзывов; остальные отзывы отдает {@link #getComments}.
+     */
     ItemBooked getByItemId(Long userId, Long itemId);
 
     List<ItemBooked> getAllItemsDyUserId(Long userId, Integer from, Integer size);
@@ -19,6 +28,17 @@ public interface ItemService {
 
     List<ItemDto> search(Long userId, String text, Integer from, Integer size);
 
+    /**
+     * Подсказки для автодополнения: названия доступных вещей, начинающиеся с префикса,
+     * самые распространенные первыми.
+     */
+    List<String> autocomplete(Long userId, String prefix, Integer limit);
+
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
 
+    /**
+     * Страница отзывов о вещи от новых к старым. Следующая страница запрашивается по курсору из предыдущей.
+     */
+    CommentPageDto getComments(Long userId, Long itemId, String cursor, Integer size);
+
 }
@@ -4,13 +4,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.DataAccessException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemBooked;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -19,34 +23,54 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentsRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.itemRequest.model.ItemRequest;
 import ru.practicum.shareit.itemRequest.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    /**
+     * Сколько последних отзывов встраивается в ответ с вещью.
+     */
+    static final int LATEST_COMMENTS = 10;
+
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
     private final CommentsRepository commentsRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemNameTrie itemNameTrie;
     private final ItemRequestRepository itemRequestRepository;
     private final UserService userService;
+    private final UserRepository userRepository;
     private final BookingMapper bookingMapper;
     private final ItemMapper itemMapper;
-    private final UserMapper userMapper;
     private final CommentMapper commentMapper;
 
     @Override
+    @Transactional
     public ItemDto create(Long userId, ItemDto itemDto) {
-        User user = userMapper.userFromDto(userService.findById(userId));
+        userService.checkExists(userId);
+        User user = userRepository.getReferenceById(userId);
         Item item = itemMapper.itemFromDto(itemDto);
 
         if (itemDto.getRequestId() != null) {
@@ -56,34 +80,57 @@ public class ItemServiceImpl implements ItemService {
         }
         item.setOwner(user);
 
-        return itemMapper.itemToDto(itemRepository.save(item));
+        return itemMapper.itemToDto(saveAndIndex(item));
+    }
+
+    @Override
+    @Transactional
+    public List<ItemDto> createAll(Long userId, List<ItemDto> itemDtos) {
+        userService.checkExists(userId);
+        User user = userRepository.getReferenceById(userId);
+        Map<Long, ItemRequest> requests = findRequests(itemDtos);
+
+        List<Item> items = itemDtos.stream()
+                .map(itemDto -> {
+                    Item item = itemMapper.itemFromDto(itemDto);
+                    item.setOwner(user);
+                    item.setRequest(itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId()));
+                    return item;
+                })
+                .collect(Collectors.toList());
+
+        List<Item> savedItems = itemRepository.saveAll(items);
+        savedItems.forEach(this::index);
+        return savedItems.stream()
+                .map(itemMapper::itemToDto)
+                .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public ItemDto update(Long userId, Long itemId, ItemDto itemDto) {
-        userService.findById(userId);
-        Item item = getOrThrow(itemId);
+        userService.checkExists(userId);
+        Item item = itemRepository.findForUpdateById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException(Item.class, String.format("ID: %s", itemId)));
 
         checkItemOwner(userId, item);
+        itemSearchCache.evictMatching(item.getName(), item.getDescription());
         itemMapper.updateItemFromDto(itemDto, item);
 
-        return itemMapper.itemToDto(itemRepository.save(item));
+        return itemMapper.itemToDto(saveAndIndex(item));
     }
 
     @Override
     public ItemBooked getByItemId(Long userId, Long itemId) {
-        userService.findById(userId);
-        Item item = getOrThrow(itemId);
+        userService.checkExists(userId);
+        Item item = itemRepository.findWithBookingsById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException(Item.class, String.format("ID: %s", itemId)));
         ItemBooked itemBooked = itemMapper.itemToItemBooked(item);
         if (item.getOwner().getId().equals(userId)) {
-            itemBooked.setLastBooking(bookingMapper.bookingForItemResponseDto(
-                    bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByEndDesc(itemBooked.getId(), BookingStatus.APPROVED, LocalDateTime.now())
-                            .orElse(null)));
-            itemBooked.setNextBooking(bookingMapper.bookingForItemResponseDto(
-                    bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(itemBooked.getId(), BookingStatus.APPROVED, LocalDateTime.now())
-                            .orElse(null)));
+            setBookings(itemBooked, item, LocalDateTime.now());
         }
-        List<CommentDto> comments = commentsRepository.findByItem(item).stream()
+        List<CommentDto> comments = commentsRepository
+                .findAllByItemIdOrderByCreatedDescIdDesc(itemId, PageRequest.of(0, LATEST_COMMENTS)).stream()
                 .map(commentMapper::commentToDto)
                 .collect(Collectors.toList());
 
@@ -93,38 +140,41 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemBooked> getAllItemsDyUserId(Long userId, Integer from, Integer size) {
-        userService.findById(userId);
+        userService.checkExists(userId);
         Pageable page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        List<ItemBooked> items = itemRepository.findAllByOwner_Id(userId, page)
-                .stream()
+        List<Item> items = itemRepository.findAllByOwner_Id(userId, page);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, List<CommentDto>> comments = findLatestComments(itemIds);
+
+        return items.stream()
                 .map(item -> {
                     ItemBooked itemBooked = itemMapper.itemToItemBooked(item);
-                    itemBooked.setLastBooking(bookingMapper.bookingForItemResponseDto(
-                            bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByEndDesc(itemBooked.getId(), BookingStatus.APPROVED, LocalDateTime.now())
-                                    .orElse(null)));
-                    itemBooked.setNextBooking(bookingMapper.bookingForItemResponseDto(
-                            bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(itemBooked.getId(), BookingStatus.APPROVED, LocalDateTime.now())
-                                    .orElse(null)));
-
-                    List<CommentDto> comments = commentsRepository.findByItem(item).stream()
-                            .map(commentMapper::commentToDto)
-                            .collect(Collectors.toList());
-                    itemBooked.setComments(comments);
-
+                    setBookings(itemBooked, item, now);
+                    itemBooked.setComments(comments.getOrDefault(item.getId(), Collections.emptyList()));
                     return itemBooked;
                 })
                 .collect(Collectors.toList());
-
-        return items;
     }
 
     @Override
+    @Transactional
     public void delete(Long userId, Long itemId) {
-        userService.findById(userId);
+        userService.checkExists(userId);
         Item item = getOrThrow(itemId);
         checkItemOwner(userId, item);
         itemRepository.deleteById(itemId);
+        itemSearchEngine.remove(itemId);
+        itemNameTrie.remove(itemId);
+        itemSearchCache.evictMatching(item.getName(), item.getDescription());
     }
 
     @Override
@@ -133,30 +183,75 @@ public class ItemServiceImpl implements ItemService {
             return Collections.emptyList();
         }
 
-        userService.findById(userId);
+        userService.checkExists(userId);
         Pageable page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        List<Item> items = itemRepository.search(text, page);
+        List<ItemDto> items = itemSearchCache.get(text, page, () -> (itemSearchEngine.isReady()
+                ? findIndexed(text, page)
+                : itemRepository.search(text, page)).stream()
+                .map(itemMapper::itemToDto)
+                .collect(Collectors.toList()));
         if (items.isEmpty()) {
             throw new EntityNotFoundException(Item.class, String.format("text: %s", text));
         }
-        return items.stream()
-                .map(itemMapper::itemToDto)
-                .collect(Collectors.toList());
+        return items;
     }
 
     @Override
+    public List<String> autocomplete(Long userId, String prefix, Integer limit) {
+        userService.checkExists(userId);
+        return itemNameTrie.isReady()
+                ? itemNameTrie.complete(prefix, limit)
+                : itemRepository.findNamesByPrefix(prefix.trim(), PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
-        User author = userMapper.userFromDto(userService.findById(userId));
-        Item item = getOrThrow(itemId);
-        bookingRepository.findFirstByItemIdAndBookerIdAndStatusAndEndBefore(itemId, userId, BookingStatus.APPROVED, LocalDateTime.now())
-                .orElseThrow(() -> (new ValidationException("Пользователь не брал предмет в аренду")));
+        User author = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException(User.class, String.format("ID: %s", userId)));
+        Item item = itemRepository.findForUpdateById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException(Item.class, String.format("ID: %s", itemId)));
+        if (!bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(itemId, userId, BookingStatus.APPROVED, LocalDateTime.now())) {
+            throw new ValidationException("Пользователь не брал предмет в аренду");
+        }
         Comment comment = commentMapper.commentFromDto(commentDto);
         comment.setItem(item);
         comment.setAuthor(author);
+        item.setCommentCount(item.getCommentCount() + 1);
         return commentMapper.commentToDto(commentsRepository.save(comment));
     }
 
+    @Override
+    public CommentPageDto getComments(Long userId, Long itemId, String cursor, Integer size) {
+        userService.checkExists(userId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new EntityNotFoundException(Item.class, String.format("ID: %s", itemId));
+        }
+
+        Pageable page = PageRequest.of(0, size + 1);
+        List<Comment> comments;
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor after = PageCursor.decode(cursor);
+            comments = commentsRepository.findAllByItemIdBefore(itemId, after.getInstantKey(), after.getId(), page);
+        } else {
+            comments = commentsRepository.findAllByItemIdOrderByCreatedDescIdDesc(itemId, page);
+        }
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            Comment last = comments.get(size - 1);
+            nextCursor = PageCursor.of(last.getCreated(), last.getId()).encode();
+        }
+
+        return CommentPageDto.builder()
+                .comments(comments.stream()
+                        .map(commentMapper::commentToDto)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
 
     private void checkItemOwner(Long userId, Item item) {
         if (!item.getOwner().getId().equals(userId)) {
@@ -166,6 +261,84 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    private Item saveAndIndex(Item item) {
+        Item saved = itemRepository.save(item);
+        index(saved);
+        return saved;
+    }
+
+    private void index(Item item) {
+        itemSearchEngine.index(item);
+        itemNameTrie.index(item);
+        itemSearchCache.evictMatching(item.getName(), item.getDescription());
+    }
+
+    /**
+     * Последние отзывы о каждой из вещей: сначала идентификаторы отзывов, затем сами отзывы с авторами.
+     */
+    private Map<Long, List<CommentDto>> findLatestComments(List<Long> itemIds) {
+        List<Long> commentIds = commentsRepository.findLatestIdsByItemIdIn(itemIds, LATEST_COMMENTS).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        if (commentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return commentsRepository.findAllWithAuthorByIdIn(commentIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::commentToDto, Collectors.toList())));
+    }
+
+    private Map<Long, ItemRequest> findRequests(List<ItemDto> itemDtos) {
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        requestIds.stream()
+                .filter(requestId -> !requests.containsKey(requestId))
+                .findFirst()
+                .ifPresent(requestId -> {
+                    throw new EntityNotFoundException(ItemRequest.class, String.format("ID: %s", requestId));
+                });
+        return requests;
+    }
+
+    private List<Item> findIndexed(String text, Pageable page) {
+        List<Long> ids = itemSearchEngine.search(text, page);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Берет последнее и ближайшее бронирования из колонок вещи. Если ближайшее уже началось,
+     * а плановый пересчет до вещи еще не дошел, значения берутся из индекса бронирований.
+     */
+    private void setBookings(ItemBooked itemBooked, Item item, LocalDateTime now) {
+        Booking nextBooking = item.getNextBooking();
+        if (nextBooking != null && !nextBooking.getStart().isAfter(now)) {
+            itemBooked.setLastBooking(bookingIntervalIndex.findLast(item.getId(), now)
+                    .map(bookingMapper::bookingIntervalForItemResponseDto)
+                    .orElse(null));
+            itemBooked.setNextBooking(bookingIntervalIndex.findNext(item.getId(), now)
+                    .map(bookingMapper::bookingIntervalForItemResponseDto)
+                    .orElse(null));
+            return;
+        }
+        itemBooked.setLastBooking(bookingMapper.bookingForItemResponseDto(item.getLastBooking()));
+        itemBooked.setNextBooking(bookingMapper.bookingForItemResponseDto(nextBooking));
+    }
+
     private Item getOrThrow(Long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException(Item.class, String.format("ID: %s", itemId)));
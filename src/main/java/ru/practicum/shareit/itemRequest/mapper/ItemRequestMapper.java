@@ -13,6 +13,9 @@ public interface ItemRequestMapper {
 
     ItemRequestDto toDto(ItemRequest save);
 
+    @Mapping(target = "items", ignore = true)
+    ItemRequestDto toDtoWithoutItems(ItemRequest request);
+
     @Mapping(target = "requestId", source = "item.request.id")
     ItemDto itemToDto(Item item);
 
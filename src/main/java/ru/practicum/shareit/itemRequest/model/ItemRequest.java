@@ -19,7 +19,8 @@ import java.util.List;
 @Table(name = "requests")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 512, nullable = false)
@@ -33,7 +34,6 @@ public class ItemRequest {
     @CreationTimestamp
     private Instant created;
 
-    //TODO разобраться со связями, долго работает.
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JoinColumn(name = "request_id")
     @ToString.Exclude
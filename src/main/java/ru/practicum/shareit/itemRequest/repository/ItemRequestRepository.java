@@ -2,6 +2,7 @@ package ru.practicum.shareit.itemRequest.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.itemRequest.model.ItemRequest;
 
@@ -10,7 +11,9 @@ import java.util.List;
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("select r from ItemRequest r where r.requestor.id = ?1 order by r.created")
     List<ItemRequest> findByRequestorIdOrderByCreatedAsc(Long requestorId);
 
+    @Query("select r from ItemRequest r where r.requestor.id <> ?1 order by r.created")
     List<ItemRequest> findByRequestorIdNotOrderByCreatedAsc(Long requestorId, Pageable page);
 }
@@ -4,65 +4,90 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.itemRequest.dto.ItemRequestDto;
 import ru.practicum.shareit.itemRequest.mapper.ItemRequestMapper;
 import ru.practicum.shareit.itemRequest.model.ItemRequest;
 import ru.practicum.shareit.itemRequest.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.util.LogExecution;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
     private final ItemRequestMapper itemRequestMapper;
-    private final UserMapper userMapper;
+    private final UserRepository userRepository;
 
 
     @Override
+    @Transactional
     public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) {
-        User requestor = userMapper.userFromDto(userService.findById(userId));
+        userService.checkExists(userId);
+        User requestor = userRepository.getReferenceById(userId);
         ItemRequest itemRequest = itemRequestMapper.fromDto(itemRequestDto);
         itemRequest.setRequestor(requestor);
-        return itemRequestMapper.toDto(itemRequestRepository.save(itemRequest));
+        return itemRequestMapper.toDto(itemRequestRepository.saveAndFlush(itemRequest));
     }
 
     @Override
     public List<ItemRequestDto> getAllRequestByUser(Long userId) {
-        userService.findById(userId);
-        List<ItemRequestDto> requests = itemRequestRepository.findByRequestorIdOrderByCreatedAsc(userId).stream()
-                .map(itemRequestMapper::toDto)
-                .collect(Collectors.toList());
-
-        return requests;
+        userService.checkExists(userId);
+        return withItems(itemRequestRepository.findByRequestorIdOrderByCreatedAsc(userId));
     }
 
     @Override
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
-        userService.findById(userId);
+        userService.checkExists(userId);
         ItemRequest request = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new EntityNotFoundException(ItemRequest.class, String.format("ID: %s", requestId)));
 
-        return itemRequestMapper.toDto(request);
+        return withItems(List.of(request)).get(0);
     }
 
     @Override
     @LogExecution(withArgs = true)
     public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
-        userService.findById(userId);
+        userService.checkExists(userId);
         Pageable page = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        return itemRequestRepository.findByRequestorIdNotOrderByCreatedAsc(userId, page)
-                .stream()
-                .map(itemRequestMapper::toDto)
+        return withItems(itemRequestRepository.findByRequestorIdNotOrderByCreatedAsc(userId, page));
+    }
+
+    /**
+     * Собирает ответы по страничке запросов, подгружая вещи всех запросов одним запросом к БД.
+     */
+    private List<ItemRequestDto> withItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> items = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(itemRequestMapper::itemToDto, Collectors.toList())));
+
+        return requests.stream()
+                .map(request -> {
+                    ItemRequestDto dto = itemRequestMapper.toDtoWithoutItems(request);
+                    dto.setItems(items.getOrDefault(request.getId(), Collections.emptyList()));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 }
@@ -9,6 +9,12 @@ public interface UserService {
 
     UserDto findById(Long userId);
 
+    /**
+     * Проверяет, что пользователь существует. Известные идентификаторы кэшируются,
+     * поэтому повторная проверка не обращается к БД.
+     */
+    void checkExists(Long userId);
+
     UserDto create(UserDto userDto);
 
     void delete(Long userId);
@@ -1,27 +1,40 @@
 package ru.practicum.shareit.user.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.CreateDuplicateEntityException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.TransactionCallbacks;
 
-import javax.transaction.Transactional;
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
+    private static final int KNOWN_USERS_CAPACITY = 10_000;
+    // Ограничивает, сколько пользователь, удаленный другим экземпляром приложения, еще считается существующим.
+    private static final Duration KNOWN_USERS_TTL = Duration.ofMinutes(10);
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final Cache<Long, Boolean> knownUsers = Caffeine.newBuilder()
+            .maximumSize(KNOWN_USERS_CAPACITY)
+            .expireAfterWrite(KNOWN_USERS_TTL)
+            .build();
 
     @Override
     public List<UserDto> getAll(Integer from, Integer size) {
@@ -40,12 +53,25 @@ public class UserServiceImpl implements UserService {
         return userMapper.userToDto(user);
     }
 
+    @Override
+    public void checkExists(Long userId) {
+        if (knownUsers.getIfPresent(userId) != null) {
+            return;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException(User.class, String.format("ID: %s", userId));
+        }
+        knownUsers.put(userId, Boolean.TRUE);
+    }
+
     @Transactional
     @Override
     public UserDto create(UserDto userDto) {
         try {
             User user = userMapper.userFromDto(userDto);
-            User sacedUser = userRepository.save(user);
+            User sacedUser = userRepository.saveAndFlush(user);
+            knownUsers.put(sacedUser.getId(), Boolean.TRUE);
+            TransactionCallbacks.afterRollback(() -> knownUsers.invalidate(sacedUser.getId()));
             return userMapper.userToDto(sacedUser);
         } catch (DataIntegrityViolationException e) {
             throw new CreateDuplicateEntityException("Пользователь с email уже существует.");
@@ -53,8 +79,11 @@ public class UserServiceImpl implements UserService {
     }
 
 
+    @Transactional
     @Override
     public void delete(Long userId) {
+        knownUsers.invalidate(userId);
+        TransactionCallbacks.afterCompletion(() -> knownUsers.invalidate(userId));
         userRepository.deleteById(userId);
     }
 
@@ -18,4 +18,9 @@ public @interface LogExecution {
     boolean withArgs() default false;
 
     boolean withDuration() default true;
+
+    /**
+     * Записывать ли длительность вызова в таймер {@code shareit.method} с тегами класса, метода и исхода.
+     */
+    boolean timed() default true;
 }
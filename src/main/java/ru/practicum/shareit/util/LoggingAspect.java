@@ -1,28 +1,56 @@
 package ru.practicum.shareit.util;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
-import org.aspectj.lang.reflect.CodeSignature;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.boot.logging.LogLevel;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
-import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Aspect
 @Slf4j
+@RequiredArgsConstructor
 public class LoggingAspect {
 
+    static final String TIMER_NAME = "shareit.method";
+    static final String OUTCOME_SUCCESS = "success";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodMetadata> metadata = new ConcurrentHashMap<>();
+
+    private static boolean isEnabled(LogLevel level) {
+        switch (level) {
+            case DEBUG:
+                return log.isDebugEnabled();
+            case TRACE:
+                return log.isTraceEnabled();
+            case WARN:
+                return log.isWarnEnabled();
+            case ERROR:
+            case FATAL:
+                return log.isErrorEnabled();
+            case OFF:
+                return false;
+            default:
+                return log.isInfoEnabled();
+        }
+    }
+
     private static void log(LogLevel level, String message) {
         switch (level) {
             case DEBUG:
@@ -44,17 +72,14 @@ public class LoggingAspect {
         }
     }
 
-    private static String getMessage(String className,
-                                     String methodName,
-                                     String[] params,
-                                     Object[] args,
-                                     boolean withArgs) {
+    private static String getMessage(MethodMetadata method, Object[] args) {
         StringJoiner message = new StringJoiner(" ")
                 .add("Method")
-                .add(className + "." + methodName)
+                .add(method.qualifiedName)
                 .add("called");
 
-        if (withArgs && Objects.nonNull(params) && Objects.nonNull(args) && params.length == args.length) {
+        String[] params = method.parameterNames;
+        if (method.withArgs && Objects.nonNull(params) && Objects.nonNull(args) && params.length == args.length) {
             Map<String, Object> values = new HashMap<>(params.length);
             for (int i = 0; i < params.length; i++) {
                 values.put(params[i], args[i]);
@@ -64,63 +89,108 @@ public class LoggingAspect {
         return message.toString();
     }
 
-    private static String getResultMessage(String className,
-                                           String methodName,
-                                           String duration,
-                                           boolean withDuration) {
+    private static String getResultMessage(MethodMetadata method, long elapsedNanos) {
         StringJoiner message = new StringJoiner(" ")
                 .add("Method")
-                .add(className + "." + methodName)
+                .add(method.qualifiedName)
                 .add("executed");
 
-        if (withDuration) {
-            message.add("in").add(duration);
+        if (method.withDuration) {
+            message.add("in").add(elapsedNanos / method.unitNanos + " " + method.unitName);
         }
         return message.toString();
     }
 
-    private static String getDuration(Instant start, Instant end, ChronoUnit chronoUnit) {
-        return String.format(
-                "%s %s",
-                chronoUnit.between(start, end),
-                chronoUnit.name().toLowerCase()
-        );
-    }
-
     @Pointcut("@annotation(ru.practicum.shareit.util.LogExecution)")
     public void pointcut() {
     }
 
     @Around("pointcut()")
     public Object log(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        Method method = ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod();
-        LogExecution annotation = method.getAnnotation(LogExecution.class);
-        String className = method.getDeclaringClass().getSimpleName();
-        LogLevel logLevel = annotation.value();
-        String methodName = method.getName();
-        Object[] args = proceedingJoinPoint.getArgs();
-
-        String message = getMessage(
-                className,
-                methodName,
-                ((CodeSignature) proceedingJoinPoint.getSignature()).getParameterNames(),
-                args,
-                annotation.withArgs()
-        );
-        log(logLevel, message);
-
-        Instant start = Instant.now();
-        Object proceed = proceedingJoinPoint.proceed();
-        Instant end = Instant.now();
-
-        String resultMessage = getResultMessage(
-                className,
-                methodName,
-                getDuration(start, end, annotation.chronoUnit()),
-                annotation.withDuration()
-        );
-        log(logLevel, resultMessage);
+        MethodSignature signature = (MethodSignature) proceedingJoinPoint.getSignature();
+        MethodMetadata method = metadata.get(signature.getMethod());
+        if (method == null) {
+            method = metadata.computeIfAbsent(signature.getMethod(),
+                    key -> new MethodMetadata(key, signature.getParameterNames()));
+        }
 
+        boolean logEnabled = isEnabled(method.level);
+        if (!logEnabled && method.successTimer == null) {
+            return proceedingJoinPoint.proceed();
+        }
+        if (logEnabled) {
+            log(method.level, getMessage(method, proceedingJoinPoint.getArgs()));
+        }
+
+        long start = System.nanoTime();
+        Object proceed;
+        try {
+            proceed = proceedingJoinPoint.proceed();
+        } catch (Throwable e) {
+            method.recordFailure(e, System.nanoTime() - start);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        method.recordSuccess(elapsed);
+
+        if (logEnabled) {
+            log(method.level, getResultMessage(method, elapsed));
+        }
         return proceed;
     }
+
+    /**
+     * Все, что аспекту нужно знать о методе, вычисляется один раз при первом вызове.
+     */
+    private final class MethodMetadata {
+        private final String className;
+        private final String methodName;
+        private final String qualifiedName;
+        private final String[] parameterNames;
+        private final LogLevel level;
+        private final boolean withArgs;
+        private final boolean withDuration;
+        private final long unitNanos;
+        private final String unitName;
+        private final Timer successTimer;
+        private final Map<Class<?>, Timer> failureTimers = new ConcurrentHashMap<>();
+
+        MethodMetadata(Method method, String[] parameterNames) {
+            LogExecution annotation = method.getAnnotation(LogExecution.class);
+            ChronoUnit unit = annotation.chronoUnit();
+            this.className = method.getDeclaringClass().getSimpleName();
+            this.methodName = method.getName();
+            this.qualifiedName = className + "." + methodName;
+            this.parameterNames = parameterNames;
+            this.level = annotation.value();
+            this.withArgs = annotation.withArgs();
+            this.withDuration = annotation.withDuration();
+            this.unitNanos = unit.getDuration().toNanos();
+            this.unitName = unit.name().toLowerCase();
+            this.successTimer = annotation.timed() ? timer(OUTCOME_SUCCESS) : null;
+        }
+
+        void recordSuccess(long elapsedNanos) {
+            if (successTimer != null) {
+                successTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void recordFailure(Throwable e, long elapsedNanos) {
+            if (successTimer != null) {
+                failureTimers.computeIfAbsent(e.getClass(), type -> timer(type.getSimpleName()))
+                        .record(elapsedNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private Timer timer(String outcome) {
+            return Timer.builder(TIMER_NAME)
+                    .description("Duration of methods annotated with @LogExecution")
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.util;
+
+import lombok.Value;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Позиция в выборке, отсортированной по (время, id). Клиент получает ее
+ * в виде непрозрачной строки и передает обратно, чтобы получить следующую страницу.
+ */
+@Value
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime key;
+    Long id;
+
+    public static PageCursor of(LocalDateTime key, Long id) {
+        return new PageCursor(key, id);
+    }
+
+    /**
+     * Курсор по моменту времени: ключ хранится как время по UTC.
+     */
+    public static PageCursor of(Instant key, Long id) {
+        return new PageCursor(LocalDateTime.ofInstant(key, ZoneOffset.UTC), id);
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new PageCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException(String.format("Некорректный курсор страницы: %s", token));
+        }
+    }
+
+    public Instant getInstantKey() {
+        return key.toInstant(ZoneOffset.UTC);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((key + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
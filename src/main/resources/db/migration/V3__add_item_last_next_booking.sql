@@ -0,0 +1,27 @@
+ALTER TABLE items
+    ADD COLUMN IF NOT EXISTS last_booking_id BIGINT;
+
+ALTER TABLE items
+    ADD COLUMN IF NOT EXISTS next_booking_id BIGINT;
+
+ALTER TABLE items
+    ADD CONSTRAINT fk_item_last_booking_id FOREIGN KEY (last_booking_id) REFERENCES bookings (id) ON DELETE SET NULL;
+
+ALTER TABLE items
+    ADD CONSTRAINT fk_item_next_booking_id FOREIGN KEY (next_booking_id) REFERENCES bookings (id) ON DELETE SET NULL;
+
+UPDATE items i
+SET last_booking_id = (SELECT b.id
+                       FROM bookings b
+                       WHERE b.item_id = i.id
+                         AND b.status = 'APPROVED'
+                         AND b.start_date < CURRENT_TIMESTAMP
+                       ORDER BY b.start_date DESC, b.id DESC
+                       LIMIT 1),
+    next_booking_id = (SELECT b.id
+                       FROM bookings b
+                       WHERE b.item_id = i.id
+                         AND b.status = 'APPROVED'
+                         AND b.start_date > CURRENT_TIMESTAMP
+                       ORDER BY b.start_date, b.id
+                       LIMIT 1);
@@ -0,0 +1,11 @@
+ALTER TABLE items
+    ADD COLUMN IF NOT EXISTS comment_count INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE items i
+SET comment_count = (SELECT COUNT(*)
+                     FROM comments c
+                     WHERE c.item_id = i.id);
+
+DROP INDEX IF EXISTS idx_comments_item;
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created, id);
@@ -0,0 +1,8 @@
+UPDATE items i
+SET last_booking_id = (SELECT b.id
+                       FROM bookings b
+                       WHERE b.item_id = i.id
+                         AND b.status = 'APPROVED'
+                         AND b.start_date < CURRENT_TIMESTAMP
+                       ORDER BY b.end_date DESC, b.id DESC
+                       LIMIT 1);
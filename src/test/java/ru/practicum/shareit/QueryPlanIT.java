@@ -0,0 +1,182 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingState;
+import ru.practicum.shareit.booking.service.ItemBookingsUpdater;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.itemRequest.model.ItemRequest;
+import ru.practicum.shareit.itemRequest.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.PageCursor;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static ru.practicum.shareit.util.SqlStatementCounter.captureSelects;
+
+/**
+ * Проверяет, что горячие запросы идут по индексам, а не полным сканированием таблиц.
+ * Планы строятся для тех выборок, которые Hibernate на самом деле отправляет в базу при вызове сервисов,
+ * поэтому проверка учитывает и соединения, которые добавляют производные запросы и спецификации.
+ */
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryPlanIT {
+
+    private static final String TABLE_SCAN = "tableScan";
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final ItemBookingsUpdater itemBookingsUpdater;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void beforeEach() {
+        User owner = User.builder().name("Owner").email("owner@mail.ru").build();
+        User booker = User.builder().name("Booker").email("booker@mail.ru").build();
+        em.persist(owner);
+        em.persist(booker);
+        ItemRequest request = ItemRequest.builder()
+                .description("Нужна дрель")
+                .requestor(booker)
+                .created(Instant.now()).build();
+        em.persist(request);
+        Item item = Item.builder()
+                .name("Дрель")
+                .description("Простая")
+                .available(true)
+                .owner(owner)
+                .request(request).build();
+        em.persist(item);
+        LocalDateTime now = LocalDateTime.now();
+        em.persist(Booking.builder()
+                .start(now.minusDays(2))
+                .end(now.minusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED).build());
+        em.persist(Comment.builder()
+                .text("Хорошая")
+                .item(item)
+                .author(booker)
+                .created(Instant.now()).build());
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+        itemId = item.getId();
+    }
+
+    @Test
+    void bookingsByBookerAndState_thenUseIndexes() {
+        String cursor = PageCursor.of(LocalDateTime.now(), Long.MAX_VALUE).encode();
+        for (BookingState state : BookingState.values()) {
+            assertIndexed(captureSelects(em, () -> bookingService.getAllBookingsByState(bookerId, state.name(), 0, 10, false)));
+            assertIndexed(captureSelects(em, () -> bookingService.getBookingsPageByState(bookerId, state.name(), cursor, 10, false)));
+        }
+    }
+
+    @Test
+    void bookingsByOwnerAndState_thenUseIndexes() {
+        String cursor = PageCursor.of(LocalDateTime.now(), Long.MAX_VALUE).encode();
+        for (BookingState state : BookingState.values()) {
+            String plans = assertIndexed(captureSelects(em,
+                    () -> bookingService.getAllBookingsByState(ownerId, state.name(), 0, 10, true)));
+            assertThat(plans, containsStringIgnoringCase("IDX_ITEMS_OWNER"));
+            assertIndexed(captureSelects(em, () -> bookingService.getBookingsPageByState(ownerId, state.name(), cursor, 10, true)));
+        }
+    }
+
+    @Test
+    void itemsByOwner_thenUseOwnerIndex() {
+        String plans = assertIndexed(captureSelects(em, () -> itemService.getAllItemsDyUserId(ownerId, 0, 10)));
+
+        assertThat(plans, containsStringIgnoringCase("IDX_ITEMS_OWNER"));
+        assertIndexed(captureSelects(em, () -> itemService.getByItemId(ownerId, itemId)));
+    }
+
+    @Test
+    void lastAndNextBookingsByItem_thenUseItemStatusStartIndex() {
+        String plans = assertIndexed(captureSelects(em, () -> itemBookingsUpdater.refresh(List.of(itemId), LocalDateTime.now())));
+
+        assertThat(plans, containsStringIgnoringCase("IDX_BOOKINGS_ITEM_STATUS_START"));
+        assertIndexed(captureSelects(em, itemBookingsUpdater::sweep));
+    }
+
+    @Test
+    void commentsByItem_thenUseItemIndex() {
+        String cursor = PageCursor.of(Instant.now(), Long.MAX_VALUE).encode();
+
+        assertIndexed(captureSelects(em, () -> itemService.getComments(ownerId, itemId, null, 10)));
+        assertIndexed(captureSelects(em, () -> itemService.getComments(ownerId, itemId, cursor, 10)));
+        assertIndexed(captureSelects(em,
+                () -> itemService.createComment(bookerId, itemId, CommentDto.builder().text("Отличная").build())));
+    }
+
+    @Test
+    void requestsByRequestor_thenUseRequestorIndex() {
+        assertIndexed(captureSelects(em, () -> itemRequestService.getAllRequestByUser(bookerId)));
+    }
+
+    @Test
+    void requestsOfOtherUsers_thenUseCreatedIndex() {
+        String plans = assertIndexed(captureSelects(em, () -> itemRequestService.getAllRequests(ownerId, 0, 10)));
+
+        assertThat(plans, containsStringIgnoringCase("IDX_REQUESTS_CREATED"));
+    }
+
+    /**
+     * Строит планы выборок и проверяет, что ни одна не сканирует таблицу целиком. Возвращает планы
+     * одной строкой для дополнительных проверок.
+     */
+    private String assertIndexed(List<String> selects) {
+        assertFalse(selects.isEmpty());
+        return selects.stream()
+                .map(sql -> {
+                    String plan = explain(sql);
+                    assertThat(sql, plan, not(containsStringIgnoringCase(TABLE_SCAN)));
+                    return plan;
+                })
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Параметры выборки связываются с {@code null}: план от их значений не зависит.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.query("explain " + sql,
+                statement -> {
+                    int parameters = statement.getParameterMetaData().getParameterCount();
+                    for (int i = 1; i <= parameters; i++) {
+                        statement.setObject(i, null);
+                    }
+                },
+                rows -> rows.next() ? rows.getString(1) : null);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.itemRequest.service.ItemRequestService;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        properties = {
+                "db.name=test",
+                "shareit.datasource.replica.url=" + ReplicaRoutingIT.REPLICA_URL,
+                "shareit.datasource.replica.username=test",
+                "shareit.datasource.replica.password=test"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ReplicaRoutingIT {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1";
+    private static final long REPLICA_ONLY_USER_ID = 1_000_000L;
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ItemRequestService itemRequestService;
+    private final UserService userService;
+
+    @BeforeAll
+    static void beforeAll() {
+        DataSource replica = new DriverManagerDataSource(REPLICA_URL, "test", "test");
+        Flyway.configure().dataSource(replica).load().migrate();
+        new JdbcTemplate(replica).update("MERGE INTO users (id, name, email) KEY (id) VALUES (?, ?, ?)",
+                REPLICA_ONLY_USER_ID, "Replica", "replica@mail.ru");
+    }
+
+    @Test
+    void connection_whenTransactionReadOnly_thenUseReplica() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        String url = transactionTemplate.execute(status -> currentUrl());
+
+        assertTrue(url.startsWith("jdbc:h2:mem:shareit-replica"), url);
+    }
+
+    @Test
+    void connection_whenTransactionReadWrite_thenUsePrimary() {
+        String url = new TransactionTemplate(transactionManager).execute(status -> currentUrl());
+
+        assertTrue(url.startsWith("jdbc:h2:mem:shareit"), url);
+        assertFalse(url.startsWith("jdbc:h2:mem:shareit-replica"), url);
+    }
+
+    @Test
+    void getAllRequests_whenUserExistsOnlyOnReplica_thenReadFromReplica() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        assertThrows(EntityNotFoundException.class,
+                () -> readWrite.executeWithoutResult(status -> userService.findById(REPLICA_ONLY_USER_ID)));
+        assertTrue(itemRequestService.getAllRequests(REPLICA_ONLY_USER_ID, 0, 10).isEmpty());
+    }
+
+    @SneakyThrows
+    private String currentUrl() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.getMetaData().getURL();
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
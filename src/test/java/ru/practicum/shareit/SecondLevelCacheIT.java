@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SecondLevelCacheIT {
+
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(User.builder()
+                .name("Cached")
+                .email("cached@mail.ru").build());
+        userRepository.findById(user.getId());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void afterEach() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void findById_whenUserLoaded_thenServeRepeatedLookupsFromCache() {
+        assertEquals("Cached", userRepository.findById(user.getId()).orElseThrow().getName());
+        assertEquals("Cached", userRepository.findById(user.getId()).orElseThrow().getName());
+
+        assertEquals(2L, statistics.getDomainDataRegionStatistics("user").getHitCount());
+        assertEquals(0L, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findById_whenUserUpdated_thenReturnNewVersion() {
+        user.setName("Updated");
+        userRepository.save(user);
+
+        assertEquals("Updated", userRepository.findById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void findById_whenCacheUsed_thenExposeHitMetric() {
+        userRepository.findById(user.getId());
+
+        double hits = meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", "user")
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+        assertTrue(hits > 0);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет, что каждый вызов сервиса выполняется в одной сессии Hibernate,
+ * read-only методы не сбрасывают изменения в базу, а все нужное ответу выбирается без ленивых догрузок.
+ */
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ServiceTransactionsIT {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+
+    private Statistics statistics;
+    private boolean statisticsEnabled;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private Long bookingId;
+
+    @BeforeEach
+    void beforeEach() {
+        ownerId = userService.create(UserDto.builder().name("Owner").email("tx-owner@mail.ru").build()).getId();
+        bookerId = userService.create(UserDto.builder().name("Booker").email("tx-booker@mail.ru").build()).getId();
+        itemId = itemService.create(ownerId, ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true).build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingId = bookingService.create(bookerId, BookingRequestDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusDays(1)).build()).getId();
+        bookingService.bookingConfirmation(ownerId, bookingId, true);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void afterEach() {
+        statistics.setStatisticsEnabled(statisticsEnabled);
+        jdbcTemplate.update("UPDATE items SET last_booking_id = NULL, next_booking_id = NULL WHERE id = ?", itemId);
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ?", itemId);
+        itemService.delete(ownerId, itemId);
+        userService.delete(bookerId);
+        userService.delete(ownerId);
+    }
+
+    @Test
+    void getByItemId_whenCalled_thenUseOneSessionWithoutFlush() {
+        assertNotNull(itemService.getByItemId(ownerId, itemId).getNextBooking());
+
+        assertEquals(1L, statistics.getSessionOpenCount());
+        assertEquals(1L, statistics.getConnectCount());
+        assertEquals(0L, statistics.getFlushCount());
+    }
+
+    @Test
+    void getAllBookingsByState_whenCalled_thenUseOneSessionWithoutFlush() {
+        assertEquals(1, bookingService.getAllBookingsByState(bookerId, "ALL", 0, 10, false).size());
+
+        assertEquals(1L, statistics.getSessionOpenCount());
+        assertEquals(1L, statistics.getConnectCount());
+        assertEquals(0L, statistics.getFlushCount());
+    }
+
+    @Test
+    void getByItemId_whenOwner_thenLoadItemWithBookingsAndCommentsWithAuthors() {
+        itemService.getByItemId(ownerId, itemId);
+
+        assertEquals(2L, statistics.getPrepareStatementCount());
+        assertEquals(0L, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    void getBookingById_whenCalled_thenLoadItemAndBookerInOneStatement() {
+        assertEquals("Дрель", bookingService.getBookingById(bookerId, bookingId).getItem().getName());
+
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(0L, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    void getAllBookingsByState_whenCalled_thenLoadItemsAndBookersInOneStatement() {
+        bookingService.getAllBookingsByState(ownerId, "ALL", 0, 10, true);
+
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(0L, statistics.getEntityFetchCount());
+    }
+}
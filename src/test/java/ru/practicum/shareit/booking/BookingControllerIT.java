@@ -8,13 +8,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingConfirmationRequestDto;
+import ru.practicum.shareit.booking.dto.BookingConfirmationResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.exception.ValidationException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -22,7 +28,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookingController.class)
 class BookingControllerIT {
@@ -287,4 +293,145 @@ class BookingControllerIT {
                         .param("size", size.toString()))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAllBookingsByItemOwner_whenInvokeWithCursor_thenReturnNextCursorHeader() {
+        String state = "ALL";
+        Integer size = 1;
+        BookingResponseDto bookingResponseDto = BookingResponseDto.builder().id(1L).build();
+        BookingPageDto page = BookingPageDto.builder()
+                .bookings(List.of(bookingResponseDto))
+                .nextCursor("next").build();
+        when(bookingService.getBookingsPageByState(userId, state, "", size, true))
+                .thenReturn(page);
+
+        String result = mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("state", state)
+                        .param("size", size.toString())
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(page.getBookings()), result);
+        verify(bookingService, never()).getAllBookingsByState(any(), any(), any(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookings_whenPagingIsCursor_thenFirstPageReturnsNextCursorHeader() {
+        BookingResponseDto bookingResponseDto = BookingResponseDto.builder().id(1L).build();
+        BookingPageDto page = BookingPageDto.builder()
+                .bookings(List.of(bookingResponseDto))
+                .nextCursor("next").build();
+        when(bookingService.getBookingsPageByState(userId, "ALL", null, 10, false))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("paging", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"));
+
+        verify(bookingService, never()).getAllBookingsByState(any(), any(), any(), any(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookings_whenPagingUnknown_thenReturnStatusBadRequest() {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("paging", "pages"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookings_whenInvokeWithMalformedCursor_thenReturnStatusBadRequest() {
+        when(bookingService.getBookingsPageByState(userId, "ALL", "broken", 10, false))
+                .thenThrow(ValidationException.class);
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("cursor", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void exportBookings_whenInvoke_thenStreamOneJsonObjectPerLine() {
+        BookingResponseDto first = BookingResponseDto.builder().id(2L).build();
+        BookingResponseDto second = BookingResponseDto.builder().id(1L).build();
+        when(bookingService.exportBookingsByState(userId, "ALL", false))
+                .thenReturn(action -> List.of(first, second).forEach(action));
+
+        MvcResult started = mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", userId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BookingController.NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(first) + "\n"
+                + objectMapper.writeValueAsString(second) + "\n", result);
+    }
+
+    @SneakyThrows
+    @Test
+    void exportBookingsByItemOwner_whenUserNotFound_thenReturnStatusNotFound() {
+        when(bookingService.exportBookingsByState(userId, "ALL", true)).thenThrow(EntityNotFoundException.class);
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", userId.toString()))
+                .andExpect(status().isNotFound());
+    }
+
+    @SneakyThrows
+    @Test
+    void bookingsConfirmation_whenInvoke_thenReturnResultPerBooking() {
+        BookingConfirmationRequestDto request = BookingConfirmationRequestDto.builder()
+                .bookingIds(List.of(1L, 2L))
+                .approved(true).build();
+        List<BookingConfirmationResultDto> results = List.of(
+                BookingConfirmationResultDto.builder().bookingId(1L).status(BookingStatus.APPROVED).build(),
+                BookingConfirmationResultDto.builder().bookingId(2L).error("Бронирование не найдено.").build());
+        when(bookingService.bookingsConfirmation(userId, request)).thenReturn(results);
+
+        String result = mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(results), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void bookingsConfirmation_whenNoBookingIds_thenReturnStatusBadRequest() {
+        BookingConfirmationRequestDto request = BookingConfirmationRequestDto.builder()
+                .bookingIds(Collections.emptyList())
+                .approved(true).build();
+
+        mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).bookingsConfirmation(any(), any());
+    }
+}
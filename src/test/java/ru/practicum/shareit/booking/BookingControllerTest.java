@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -78,7 +79,7 @@ class BookingControllerTest {
                 .thenReturn(expectedCollection);
 
         ResponseEntity<List<BookingResponseDto>> response =
-                bookingController.getAllBookings(userId, state, from, size);
+                bookingController.getAllBookings(userId, state, from, size, "offset", null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -95,10 +96,43 @@ class BookingControllerTest {
                 .thenReturn(expectedCollection);
 
         ResponseEntity<List<BookingResponseDto>> response =
-                bookingController.getAllBookingsByItemOwner(userId, state, from, size);
+                bookingController.getAllBookingsByItemOwner(userId, state, from, size, "offset", null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertFalse(response.getBody().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllBookings_whenInvokedWithCursorPaging_thenResponseContainsNextCursorHeader() {
+        String state = "ALL";
+        Integer size = 5;
+        BookingPageDto page = BookingPageDto.builder()
+                .bookings(List.of(expectedDto))
+                .nextCursor("next").build();
+        when(bookingService.getBookingsPageByState(userId, state, null, size, false)).thenReturn(page);
+
+        ResponseEntity<List<BookingResponseDto>> response =
+                bookingController.getAllBookings(userId, state, 0, size, "cursor", null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(expectedDto), response.getBody());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAllBookingsByItemOwner_whenInvokedWithCursorOnLastPage_thenResponseWithoutNextCursorHeader() {
+        String state = "ALL";
+        Integer size = 5;
+        BookingPageDto page = BookingPageDto.builder()
+                .bookings(List.of(expectedDto)).build();
+        when(bookingService.getBookingsPageByState(userId, state, "cursor", size, true)).thenReturn(page);
+
+        ResponseEntity<List<BookingResponseDto>> response =
+                bookingController.getAllBookingsByItemOwner(userId, state, 0, size, "cursor", "cursor");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(expectedDto), response.getBody());
+        assertFalse(response.getHeaders().containsKey("X-Next-Cursor"));
+    }
+}
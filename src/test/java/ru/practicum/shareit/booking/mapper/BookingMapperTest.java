@@ -6,6 +6,8 @@ import ru.practicum.shareit.booking.dto.BookingDtoForItemResponseDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemForBookingResponseDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.itemRequest.model.ItemRequest;
@@ -75,6 +77,43 @@ class BookingMapperTest {
         assertEquals(1L, actualBooking.getBookerId());
     }
 
+    @Test
+    void bookingToInterval() {
+        Booking booking = Booking.builder()
+                .id(0L)
+                .item(Item.builder().id(1L).build())
+                .booker(User.builder().id(2L).build())
+                .status(BookingStatus.APPROVED)
+                .start(LocalDateTime.MIN)
+                .end(LocalDateTime.MAX).build();
+
+        BookingInterval actualInterval = mapper.bookingToInterval(booking);
+
+        assertEquals(0L, actualInterval.getId());
+        assertEquals(1L, actualInterval.getItemId());
+        assertEquals(2L, actualInterval.getBookerId());
+        assertEquals(LocalDateTime.MIN, actualInterval.getStart());
+        assertEquals(LocalDateTime.MAX, actualInterval.getEnd());
+        assertEquals(BookingStatus.APPROVED, actualInterval.getStatus());
+    }
+
+    @Test
+    void bookingIntervalForItemResponseDto() {
+        BookingInterval interval = BookingInterval.builder()
+                .id(0L)
+                .itemId(1L)
+                .bookerId(2L)
+                .start(LocalDateTime.MIN)
+                .end(LocalDateTime.MAX).build();
+
+        BookingDtoForItemResponseDto actualBooking = mapper.bookingIntervalForItemResponseDto(interval);
+
+        assertEquals(0L, actualBooking.getId());
+        assertEquals(2L, actualBooking.getBookerId());
+        assertEquals(LocalDateTime.MIN, actualBooking.getStart());
+        assertEquals(LocalDateTime.MAX, actualBooking.getEnd());
+    }
+
     @Test
     void userToDtoForBookingResponseDto() {
         User user = User.builder()
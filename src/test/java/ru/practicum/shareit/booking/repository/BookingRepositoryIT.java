@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StreamUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class BookingRepositoryIT {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDateTime now;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        now = LocalDateTime.now();
+        User owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("Saw")
+                .description("Desc")
+                .available(true)
+                .owner(owner).build());
+    }
+
+    @Test
+    void findLastBookingsByItemIds_whenLaterStartEndsEarlier_thenReturnLatestEnd() {
+        Booking longest = save(now.minusDays(10), now.minusDays(1));
+        save(now.minusDays(5), now.minusDays(3));
+
+        List<Booking> last = bookingRepository.findLastBookingsByItemIds(List.of(item.getId()), BookingStatus.APPROVED, now);
+
+        assertEquals(List.of(longest.getId()), last.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findLastBookingsByItemIds_whenEndsTie_thenReturnOneWithGreaterId() {
+        save(now.minusDays(5), now.minusDays(1));
+        Booking greater = save(now.minusDays(3), now.minusDays(1));
+
+        List<Booking> last = bookingRepository.findLastBookingsByItemIds(List.of(item.getId()), BookingStatus.APPROVED, now);
+
+        assertEquals(List.of(greater.getId()), last.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findNextBookingsByItemIds_whenStartsTie_thenReturnOneWithLesserId() {
+        Booking lesser = save(now.plusDays(1), now.plusDays(3));
+        save(now.plusDays(1), now.plusDays(2));
+
+        List<Booking> next = bookingRepository.findNextBookingsByItemIds(List.of(item.getId()), BookingStatus.APPROVED, now);
+
+        assertEquals(List.of(lesser.getId()), next.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void lastBookingMigration_whenLaterStartEndsEarlier_thenAgreeWithRepository() throws IOException {
+        Booking longest = save(now.minusDays(10), now.minusDays(1));
+        save(now.minusDays(5), now.minusDays(3));
+        String migration = StreamUtils.copyToString(
+                new ClassPathResource("db/migration/V6__recompute_item_last_booking.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+
+        jdbcTemplate.execute(migration);
+        em.clear();
+
+        assertEquals(longest.getId(), itemRepository.findById(item.getId()).orElseThrow().getLastBooking().getId());
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.saveAndFlush(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED).build());
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+    private Long itemId;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new BookingIntervalIndex(bookingRepository);
+        itemId = 1L;
+        now = LocalDateTime.of(2030, 1, 1, 12, 0);
+    }
+
+    @Test
+    void rebuild_whenRepositoryHasBookings_thenIndexContainsThem() {
+        when(bookingRepository.findAllIntervalsByStatusIn(any()))
+                .thenReturn(List.of(interval(1L, now.minusHours(2), now.minusHours(1), BookingStatus.APPROVED)));
+
+        index.rebuild();
+
+        assertEquals(1L, index.findLast(itemId, now).orElseThrow().getId());
+        assertFalse(index.isFree(itemId, now.minusHours(3), now.minusMinutes(90)));
+    }
+
+    @Test
+    void isFree_whenRebuiltFromOverlappingBookings_thenCheckEveryOverlappingInterval() {
+        when(bookingRepository.findAllIntervalsByStatusIn(any())).thenReturn(List.of(
+                interval(1L, now, now.plusHours(30), BookingStatus.APPROVED),
+                interval(2L, now.plusHours(4), now.plusHours(5), BookingStatus.APPROVED)));
+
+        index.rebuild();
+
+        assertFalse(index.isFree(itemId, now.plusHours(10), now.plusHours(12)));
+        assertFalse(index.isFree(itemId, now.plusHours(10), now.plusHours(12), 2L));
+        assertTrue(index.isFree(itemId, now.plusHours(30), now.plusHours(32)));
+    }
+
+    @Test
+    void put_whenIntervalsEnded_thenPruneThemAndKeepLastApproved() {
+        LocalDateTime realNow = LocalDateTime.now();
+        index.put(interval(1L, realNow.minusDays(3), realNow.minusDays(2), BookingStatus.APPROVED));
+        index.put(interval(2L, realNow.minusDays(2), realNow.minusDays(1), BookingStatus.WAITING));
+        index.put(interval(3L, realNow.minusHours(5), realNow.minusHours(4), BookingStatus.APPROVED));
+        index.put(interval(4L, realNow.plusDays(1), realNow.plusDays(2), BookingStatus.APPROVED));
+
+        assertEquals(2, index.size(itemId));
+        assertEquals(3L, index.findLast(itemId, realNow).orElseThrow().getId());
+        assertEquals(4L, index.findNext(itemId, realNow).orElseThrow().getId());
+        assertTrue(index.isFree(itemId, realNow, realNow.plusHours(1)));
+    }
+
+    @Test
+    void findLast_whenLaterStartEndsEarlier_thenReturnLatestEnd() {
+        index.put(interval(1L, now.minusDays(10), now.minusDays(1), BookingStatus.APPROVED));
+        index.put(interval(2L, now.minusDays(5), now.minusDays(3), BookingStatus.APPROVED));
+
+        assertEquals(1L, index.findLast(itemId, now).orElseThrow().getId());
+    }
+
+    @Test
+    void findLast_whenEndedIntervalsPruned_thenKeepLatestEnd() {
+        LocalDateTime realNow = LocalDateTime.now();
+        index.put(interval(1L, realNow.minusDays(10), realNow.minusDays(1), BookingStatus.APPROVED));
+        index.put(interval(2L, realNow.minusDays(5), realNow.minusDays(3), BookingStatus.APPROVED));
+
+        assertEquals(1, index.size(itemId));
+        assertEquals(1L, index.findLast(itemId, realNow).orElseThrow().getId());
+    }
+
+    @Test
+    void isFree_whenNoBookings_thenReturnTrue() {
+        assertTrue(index.isFree(itemId, now, now.plusHours(1)));
+    }
+
+    @Test
+    void isFree_whenWindowOverlapsActiveBooking_thenReturnFalse() {
+        index.put(interval(1L, now, now.plusHours(2), BookingStatus.WAITING));
+
+        assertFalse(index.isFree(itemId, now.plusHours(1), now.plusHours(3)));
+        assertFalse(index.isFree(itemId, now.minusHours(1), now.plusHours(1)));
+        assertFalse(index.isFree(itemId, now.plusMinutes(10), now.plusMinutes(20)));
+        assertFalse(index.isFree(itemId, now.minusHours(1), now.plusHours(3)));
+    }
+
+    @Test
+    void isFree_whenWindowAdjacentToBooking_thenReturnTrue() {
+        index.put(interval(1L, now, now.plusHours(2), BookingStatus.APPROVED));
+
+        assertTrue(index.isFree(itemId, now.plusHours(2), now.plusHours(3)));
+        assertTrue(index.isFree(itemId, now.minusHours(1), now));
+        assertTrue(index.isFree(2L, now, now.plusHours(2)));
+    }
+
+    @Test
+    void isFree_whenBookingRejected_thenReturnTrue() {
+        index.put(interval(1L, now, now.plusHours(2), BookingStatus.WAITING));
+        index.put(interval(1L, now, now.plusHours(2), BookingStatus.REJECTED));
+
+        assertTrue(index.isFree(itemId, now, now.plusHours(2)));
+    }
+
+    @Test
+    void isFree_whenOnlyIgnoredBookingOverlaps_thenReturnTrue() {
+        index.put(interval(1L, now.minusHours(2), now, BookingStatus.APPROVED));
+        index.put(interval(2L, now, now.plusHours(2), BookingStatus.WAITING));
+
+        assertTrue(index.isFree(itemId, now, now.plusHours(2), 2L));
+        assertFalse(index.isFree(itemId, now.minusHours(1), now.plusHours(2), 2L));
+        assertFalse(index.isFree(itemId, now, now.plusHours(2), 3L));
+    }
+
+    @Test
+    void findLastAndNext_whenApprovedBookingsAroundNow_thenReturnNearest() {
+        index.put(interval(1L, now.minusHours(4), now.minusHours(3), BookingStatus.APPROVED));
+        index.put(interval(2L, now.minusHours(2), now.minusHours(1), BookingStatus.APPROVED));
+        index.put(interval(3L, now.plusHours(1), now.plusHours(2), BookingStatus.APPROVED));
+        index.put(interval(4L, now.plusHours(3), now.plusHours(4), BookingStatus.APPROVED));
+
+        assertEquals(2L, index.findLast(itemId, now).orElseThrow().getId());
+        assertEquals(3L, index.findNext(itemId, now).orElseThrow().getId());
+    }
+
+    @Test
+    void findLastAndNext_whenOnlyWaitingBookings_thenReturnEmpty() {
+        index.put(interval(1L, now.minusHours(2), now.minusHours(1), BookingStatus.WAITING));
+        index.put(interval(2L, now.plusHours(1), now.plusHours(2), BookingStatus.WAITING));
+
+        assertTrue(index.findLast(itemId, now).isEmpty());
+        assertTrue(index.findNext(itemId, now).isEmpty());
+    }
+
+    private BookingInterval interval(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return BookingInterval.builder()
+                .id(id)
+                .itemId(itemId)
+                .bookerId(2L)
+                .start(start)
+                .end(end)
+                .status(status).build();
+    }
+}
@@ -0,0 +1,221 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingServiceImplConcurrencyIT {
+
+    private static final int THREADS = 32;
+    private static final int ITEMS = 8;
+    private static final int ATTEMPTS_PER_ITEM = 50;
+
+    private final BookingService bookingService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final TrigramItemSearchEngine itemSearchEngine;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private Long ownerId;
+    private Long bookerId;
+    private List<Long> itemIds;
+
+    @BeforeEach
+    void beforeEach() {
+        ownerId = userService.create(UserDto.builder()
+                .name("Owner")
+                .email("concurrency-owner@mail.ru").build()).getId();
+        bookerId = userService.create(UserDto.builder()
+                .name("Booker")
+                .email("concurrency-booker@mail.ru").build()).getId();
+        itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.create(ownerId, ItemDto.builder()
+                    .name("Item " + i)
+                    .description("Concurrency")
+                    .available(true).build()).getId());
+        }
+    }
+
+    @AfterEach
+    void afterEach() {
+        bookingRepository.deleteAll(findBookingsOfTestItems());
+        itemRepository.deleteAllById(itemIds);
+        userRepository.deleteAllById(List.of(ownerId, bookerId));
+        bookingIntervalIndex.rebuild();
+        itemSearchEngine.rebuild();
+    }
+
+    @Test
+    void create_whenSameWindowRequestedConcurrently_thenExactlyOneBookingPerItem() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingRequestDto> requests = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            for (int i = 0; i < ATTEMPTS_PER_ITEM; i++) {
+                requests.add(BookingRequestDto.builder()
+                        .itemId(itemId)
+                        .start(start)
+                        .end(start.plusHours(2)).build());
+            }
+        }
+
+        int admitted = admitConcurrently(requests);
+
+        assertEquals(ITEMS, admitted);
+        Map<Long, List<Booking>> bookingsByItem = groupByItem(findBookingsOfTestItems());
+        assertEquals(ITEMS, bookingsByItem.size());
+        bookingsByItem.values().forEach(bookings -> assertEquals(1, bookings.size()));
+    }
+
+    @Test
+    void create_whenRandomWindowsRequestedConcurrently_thenNoOverlappingBookings() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Random random = new Random(42);
+        List<BookingRequestDto> requests = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            for (int i = 0; i < ATTEMPTS_PER_ITEM; i++) {
+                LocalDateTime bookingStart = start.plusMinutes(random.nextInt(48) * 30L);
+                requests.add(BookingRequestDto.builder()
+                        .itemId(itemId)
+                        .start(bookingStart)
+                        .end(bookingStart.plusMinutes(30L + random.nextInt(6) * 30L)).build());
+            }
+        }
+
+        int admitted = admitConcurrently(requests);
+
+        List<Booking> bookings = findBookingsOfTestItems();
+        assertEquals(admitted, bookings.size());
+        assertThat(admitted, greaterThan(ITEMS));
+        for (List<Booking> itemBookings : groupByItem(bookings).values()) {
+            itemBookings.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < itemBookings.size(); i++) {
+                assertFalse(itemBookings.get(i).getStart().isBefore(itemBookings.get(i - 1).getEnd()),
+                        "Bookings overlap: " + itemBookings.get(i - 1) + " and " + itemBookings.get(i));
+            }
+        }
+    }
+
+    @Test
+    void create_whenStoredBookingsOverlap_thenNewBookingsOverlapNothing() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> stored = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            Item item = itemRepository.findById(itemId).orElseThrow();
+            User booker = userRepository.findById(bookerId).orElseThrow();
+            stored.add(Booking.builder().item(item).booker(booker)
+                    .start(start).end(start.plusHours(30)).status(BookingStatus.APPROVED).build());
+            stored.add(Booking.builder().item(item).booker(booker)
+                    .start(start.plusHours(4)).end(start.plusHours(5)).status(BookingStatus.WAITING).build());
+        }
+        Set<Long> storedIds = bookingRepository.saveAll(stored).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toSet());
+        bookingIntervalIndex.rebuild();
+
+        Random random = new Random(42);
+        List<BookingRequestDto> requests = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            for (int i = 0; i < ATTEMPTS_PER_ITEM; i++) {
+                LocalDateTime bookingStart = start.plusMinutes(random.nextInt(80) * 30L);
+                requests.add(BookingRequestDto.builder()
+                        .itemId(itemId)
+                        .start(bookingStart)
+                        .end(bookingStart.plusMinutes(30L + random.nextInt(6) * 30L)).build());
+            }
+        }
+
+        int admitted = admitConcurrently(requests);
+
+        List<Booking> bookings = findBookingsOfTestItems();
+        assertEquals(storedIds.size() + admitted, bookings.size());
+        assertThat(admitted, greaterThan(ITEMS));
+        for (List<Booking> itemBookings : groupByItem(bookings).values()) {
+            for (Booking created : itemBookings) {
+                if (storedIds.contains(created.getId())) {
+                    continue;
+                }
+                for (Booking other : itemBookings) {
+                    assertFalse(!other.getId().equals(created.getId())
+                                    && other.getStart().isBefore(created.getEnd())
+                                    && created.getStart().isBefore(other.getEnd()),
+                            "Bookings overlap: " + other + " and " + created);
+                }
+            }
+        }
+    }
+
+    private int admitConcurrently(List<BookingRequestDto> requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (BookingRequestDto request : requests) {
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        bookingService.create(bookerId, request);
+                        return true;
+                    } catch (ValidationException e) {
+                        return false;
+                    }
+                }));
+            }
+            startSignal.countDown();
+
+            int admitted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(1, TimeUnit.MINUTES)) {
+                    admitted++;
+                }
+            }
+            return admitted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Booking> findBookingsOfTestItems() {
+        return bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<Booking>> groupByItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    }
+}
@@ -5,11 +5,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingConfirmationRequestDto;
+import ru.practicum.shareit.booking.dto.BookingConfirmationResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.UnsupportedStatusException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -23,14 +28,18 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(
@@ -89,6 +98,22 @@ class BookingServiceImplIT {
         assertEquals(BookingStatus.WAITING, bookingSaved.getStatus());
     }
 
+    @Test
+    void create_whenPeriodOverlapsExistingBooking_thenValidationExceptionThrow() {
+        UserDto userDtoBooker = UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        Long bookerId = userService.create(userDtoBooker).getId();
+        bookingService.create(bookerId, bookingRequestDto);
+        BookingRequestDto overlapping = BookingRequestDto.builder()
+                .itemId(itemId)
+                .start(bookingRequestDto.getStart().plusMinutes(30))
+                .end(bookingRequestDto.getEnd().plusMinutes(30)).build();
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.create(bookerId, overlapping));
+    }
+
     @Test
     void bookingConfirmation() {
         UserDto userDtoBooker = UserDto.builder()
@@ -107,6 +132,53 @@ class BookingServiceImplIT {
         assertEquals(BookingStatus.APPROVED, bookingApproved.getStatus());
     }
 
+    @Test
+    void bookingsConfirmation_whenSeveralBookings_thenApproveOwnedAndRefreshItem() {
+        UserDto userDtoBooker = UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        Long bookerId = userService.create(userDtoBooker).getId();
+        Long firstId = bookingService.create(bookerId, bookingRequestDto).getId();
+        Long secondId = bookingService.create(bookerId, BookingRequestDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusHours(2L))
+                .end(LocalDateTime.now().plusHours(3L)).build()).getId();
+        BookingConfirmationRequestDto request = BookingConfirmationRequestDto.builder()
+                .bookingIds(List.of(firstId, secondId, Long.MAX_VALUE))
+                .approved(true).build();
+
+        List<BookingConfirmationResultDto> results = bookingService.bookingsConfirmation(userId, request);
+
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertEquals(BookingStatus.APPROVED, results.get(1).getStatus());
+        assertNotNull(results.get(2).getError());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(firstId).orElseThrow().getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(secondId).orElseThrow().getStatus());
+        assertEquals(secondId, itemRepository.findById(itemId).orElseThrow().getNextBooking().getId());
+    }
+
+    @Test
+    void bookingsConfirmation_whenRejectedBookingOverlapsActiveOne_thenReportErrorAndKeepStatus() {
+        UserDto userDtoBooker = UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        Long bookerId = userService.create(userDtoBooker).getId();
+        Long rejectedId = bookingService.create(bookerId, bookingRequestDto).getId();
+        bookingService.bookingConfirmation(userId, rejectedId, false);
+        Long waitingId = bookingService.create(bookerId, bookingRequestDto).getId();
+        BookingConfirmationRequestDto request = BookingConfirmationRequestDto.builder()
+                .bookingIds(List.of(rejectedId))
+                .approved(true).build();
+
+        List<BookingConfirmationResultDto> results = bookingService.bookingsConfirmation(userId, request);
+
+        assertNotNull(results.get(0).getError());
+        assertThrows(ValidationException.class,
+                () -> bookingService.bookingConfirmation(userId, rejectedId, true));
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(rejectedId).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(waitingId).orElseThrow().getStatus());
+    }
+
     @Test
     void getAllBookingsByState_whenInvokeBooker_thenReturnListBookingResponseDto() {
         List<User> users = new ArrayList<>();
@@ -229,6 +301,120 @@ class BookingServiceImplIT {
         assertThat(resultBookings.get(0).getId(), equalTo(bookings.get(3).getId()));
     }
 
+    @Test
+    void getBookingsPageByState_whenPagingWithCursor_thenReturnAllBookingsWithoutGaps() {
+        List<User> users = new ArrayList<>();
+        fillTheUserRepository(users);
+        Long bookerId = users.get(1).getId();
+        List<Item> items = new ArrayList<>();
+        fillTheItemRepository(users, items);
+        List<Booking> bookings = new ArrayList<>();
+        fillTheBookingRepository(users, items, bookings);
+
+        List<Long> actualIds = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            BookingPageDto page = bookingService.getBookingsPageByState(bookerId, "ALL", cursor, 2, false);
+            page.getBookings().forEach(booking -> actualIds.add(booking.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertThat(actualIds, equalTo(List.of(
+                bookings.get(4).getId(),
+                bookings.get(3).getId(),
+                bookings.get(2).getId(),
+                bookings.get(0).getId(),
+                bookings.get(1).getId())));
+    }
+
+    @Test
+    void getBookingsPageByState_whenBookerCurrent_thenSameOrderAsOffsetPaging() {
+        List<User> users = new ArrayList<>();
+        fillTheUserRepository(users);
+        Long bookerId = users.get(1).getId();
+        List<Item> items = new ArrayList<>();
+        fillTheItemRepository(users, items);
+        List<Booking> bookings = new ArrayList<>();
+        fillTheBookingRepository(users, items, bookings);
+        LocalDateTime start = bookings.get(0).getStart();
+        for (Item item : List.of(items.get(1), items.get(2), items.get(3))) {
+            bookingRepository.save(Booking.builder()
+                    .start(item == items.get(3) ? start : start.minusMinutes(30))
+                    .end(start.plusHours(2))
+                    .item(item)
+                    .booker(users.get(1))
+                    .status(BookingStatus.APPROVED).build());
+        }
+
+        List<Long> cursorIds = new ArrayList<>();
+        String cursor = "";
+        do {
+            BookingPageDto page = bookingService.getBookingsPageByState(bookerId, "CURRENT", cursor, 1, false);
+            page.getBookings().forEach(booking -> cursorIds.add(booking.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<Long> offsetIds = bookingService.getAllBookingsByState(bookerId, "CURRENT", 0, 10, false).stream()
+                .map(BookingResponseDto::getId)
+                .collect(Collectors.toList());
+
+        assertThat(cursorIds, hasSize(4));
+        assertThat(cursorIds, equalTo(offsetIds));
+    }
+
+    @Test
+    void getBookingsPageByState_whenItemOwnerAndState_thenReturnFilteredPage() {
+        List<User> users = new ArrayList<>();
+        fillTheUserRepository(users);
+        Long ownerId = users.get(0).getId();
+        List<Item> items = new ArrayList<>();
+        fillTheItemRepository(users, items);
+        List<Booking> bookings = new ArrayList<>();
+        fillTheBookingRepository(users, items, bookings);
+
+        BookingPageDto page = bookingService.getBookingsPageByState(ownerId, "FUTURE", "", 2, true);
+
+        assertThat(page.getBookings(), hasSize(2));
+        assertThat(page.getBookings().get(0).getId(), equalTo(bookings.get(4).getId()));
+        assertThat(page.getBookings().get(1).getId(), equalTo(bookings.get(3).getId()));
+
+        page = bookingService.getBookingsPageByState(ownerId, "FUTURE", page.getNextCursor(), 2, true);
+
+        assertThat(page.getBookings(), hasSize(1));
+        assertThat(page.getBookings().get(0).getId(), equalTo(bookings.get(2).getId()));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void exportBookingsByState_whenBooker_thenStreamAllBookingsInSeekOrder() {
+        List<User> users = new ArrayList<>();
+        fillTheUserRepository(users);
+        List<Item> items = new ArrayList<>();
+        fillTheItemRepository(users, items);
+        List<Booking> bookings = new ArrayList<>();
+        fillTheBookingRepository(users, items, bookings);
+        List<BookingResponseDto> exported = new ArrayList<>();
+
+        bookingService.exportBookingsByState(users.get(1).getId(), "ALL", false).forEach(exported::add);
+
+        assertThat(exported.stream().map(BookingResponseDto::getId).collect(Collectors.toList()), equalTo(List.of(
+                bookings.get(4).getId(),
+                bookings.get(3).getId(),
+                bookings.get(2).getId(),
+                bookings.get(0).getId(),
+                bookings.get(1).getId())));
+        assertEquals(items.get(2).getName(), exported.get(0).getItem().getName());
+        assertEquals(users.get(1).getId(), exported.get(0).getBooker().getId());
+    }
+
+    @Test
+    void exportBookingsByState_whenUnknownState_thenThrowBeforeStreaming() {
+        assertThrows(UnsupportedStatusException.class,
+                () -> bookingService.exportBookingsByState(userId, "UNKNOWN", true));
+    }
+
     @Test
     void getBookingById() {
         UserDto userDtoBooker = UserDto.builder()
@@ -292,7 +478,7 @@ class BookingServiceImplIT {
     private void fillTheBookingRepository(List<User> users,
                                           List<Item> items,
                                           List<Booking> bookings) {
-        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
         Booking booking2 = Booking.builder()
                 .start(start.minusHours(1))
                 .end(start.plusHours(1))
@@ -8,6 +8,11 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingConfirmationRequestDto;
+import ru.practicum.shareit.booking.dto.BookingConfirmationResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -19,13 +24,16 @@ import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,12 +52,16 @@ class BookingServiceImplTest {
     private UserService userService;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemBookingsUpdater itemBookingsUpdater;
     @InjectMocks
     private BookingServiceImpl bookingService;
     @Captor
     private ArgumentCaptor<Booking> bookingArgumentCaptor;
     @Captor
-    private ArgumentCaptor<BookingStatus> bookingStatusArgumentCaptor;
+    private ArgumentCaptor<Pageable> pageableArgumentCaptor;
     private Long userId;
     private Long bookingId;
     private Booking booking;
@@ -70,13 +82,14 @@ class BookingServiceImplTest {
                 .start(LocalDateTime.MIN).build();
         bookingResponseDto = BookingResponseDto.builder().build();
         user = User.builder().id(1L).build();
-        item = Item.builder().owner(user).available(true).build();
+        item = Item.builder().id(1L).owner(user).available(true).build();
     }
 
     @Test
     void create_whenInvoke_thenReturnBookingResponseDto() {
-        when(userRepository.findById(userId)).thenReturn(Optional.ofNullable(user));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item));
+        when(bookingIntervalIndex.isFree(any(), any(), any())).thenReturn(true);
         when(bookingMapper.bookingFromRequestDto(bookingRequestDto)).thenReturn(booking);
         when(bookingMapper.bookingToResponseDto(any())).thenReturn(bookingResponseDto);
 
@@ -103,10 +116,23 @@ class BookingServiceImplTest {
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    void create_whenItemAlreadyBookedForPeriod_thenValidationExceptionThrow() {
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+        when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item));
+        when(bookingMapper.bookingFromRequestDto(bookingRequestDto)).thenReturn(booking);
+        when(bookingIntervalIndex.isFree(any(), any(), any())).thenReturn(false);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.create(userId, bookingRequestDto));
+        verify(bookingRepository, never()).save(any());
+        verify(bookingIntervalIndex, never()).put(any());
+    }
+
     @Test
     void create_whenItemNotAvailable_thenValidationExceptionThrow() {
         item.setAvailable(false);
-        when(userRepository.findById(userId)).thenReturn(Optional.ofNullable(user));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item));
 
         assertThrows(ValidationException.class,
@@ -117,7 +143,7 @@ class BookingServiceImplTest {
     @Test
     void create_whenUserIsOwner_thenEntityNotFoundExceptionThrow() {
         user.setId(0L);
-        when(userRepository.findById(userId)).thenReturn(Optional.ofNullable(user));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(itemRepository.findById(any())).thenReturn(Optional.ofNullable(item));
 
         assertThrows(EntityNotFoundException.class,
@@ -127,7 +153,7 @@ class BookingServiceImplTest {
 
     @Test
     void create_whenUserNotFound_thenEntityNotFoundExceptionThrow() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new EntityNotFoundException(User.class, "ID: 0")).when(userService).checkExists(userId);
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.create(userId, bookingRequestDto));
@@ -137,7 +163,7 @@ class BookingServiceImplTest {
     @Test
     void create_whenItemNotFound_thenEntityNotFoundExceptionThrow() {
         user.setId(0L);
-        when(userRepository.findById(userId)).thenReturn(Optional.ofNullable(user));
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(itemRepository.findById(any())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
@@ -151,7 +177,8 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
         booking.setItem(item);
         booking.setBooker(user);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.ofNullable(booking));
+        when(bookingIntervalIndex.isFree(any(), any(), any(), eq(booking.getId()))).thenReturn(true);
         when(bookingMapper.bookingToResponseDto(any())).thenReturn(bookingResponseDto);
 
         BookingResponseDto actualBooking = bookingService.bookingConfirmation(userId, bookingId, true);
@@ -163,6 +190,7 @@ class BookingServiceImplTest {
         Booking savedBooking = bookingArgumentCaptor.getValue();
 
         assertEquals(BookingStatus.APPROVED, savedBooking.getStatus());
+        verify(itemBookingsUpdater).refresh(eq(List.of(item.getId())), any());
     }
 
     @Test
@@ -171,7 +199,7 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
         booking.setItem(item);
         booking.setBooker(user);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.ofNullable(booking));
         when(bookingMapper.bookingToResponseDto(any())).thenReturn(bookingResponseDto);
 
         BookingResponseDto actualBooking = bookingService.bookingConfirmation(userId, bookingId, false);
@@ -183,11 +211,75 @@ class BookingServiceImplTest {
         Booking savedBooking = bookingArgumentCaptor.getValue();
 
         assertEquals(BookingStatus.REJECTED, savedBooking.getStatus());
+        verifyNoInteractions(itemBookingsUpdater);
+    }
+
+    @Test
+    void bookingsConfirmation_whenMixedBookings_thenUpdateAllowedOnesAndReportTheRest() {
+        User owner = User.builder().id(userId).build();
+        Item ownItem = Item.builder().id(2L).owner(owner).build();
+        Booking waiting = Booking.builder().id(1L).item(ownItem).booker(user).status(BookingStatus.WAITING).build();
+        Booking approved = Booking.builder().id(2L).item(ownItem).booker(user).status(BookingStatus.APPROVED).build();
+        Booking foreign = Booking.builder().id(3L).item(item).booker(user).status(BookingStatus.WAITING).build();
+        BookingConfirmationRequestDto request = BookingConfirmationRequestDto.builder()
+                .bookingIds(List.of(1L, 2L, 3L, 4L, 1L))
+                .approved(true).build();
+        when(bookingRepository.findAllForUpdateWithItemByIdIn(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(waiting, approved, foreign));
+        when(bookingIntervalIndex.isFree(2L, null, null, 1L)).thenReturn(true);
+        when(bookingRepository.updateStatus(List.of(1L), BookingStatus.APPROVED)).thenReturn(1);
+
+        List<BookingConfirmationResultDto> results = bookingService.bookingsConfirmation(userId, request);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), results.stream()
+                .map(BookingConfirmationResultDto::getBookingId)
+                .collect(Collectors.toList()));
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertNotNull(results.get(1).getError());
+        assertNotNull(results.get(2).getError());
+        assertNotNull(results.get(3).getError());
+        verify(bookingRepository, times(1)).updateStatus(List.of(1L), BookingStatus.APPROVED);
+        verify(bookingRepository, never()).save(any());
+        verify(bookingIntervalIndex).put(argThat(interval -> interval.getId().equals(1L)
+                && interval.getStatus() == BookingStatus.APPROVED));
+        verify(itemBookingsUpdater).refresh(eq(List.of(2L)), any());
+    }
+
+    @Test
+    void bookingsConfirmation_whenApprovedBookingOverlapsActiveOne_thenReportErrorAndNotUpdate() {
+        Item ownItem = Item.builder().id(2L).owner(User.builder().id(userId).build()).build();
+        Booking rejected = Booking.builder().id(1L).item(ownItem).booker(user).status(BookingStatus.REJECTED).build();
+        BookingConfirmationRequestDto request = BookingConfirmationRequestDto.builder()
+                .bookingIds(List.of(1L))
+                .approved(true).build();
+        when(bookingRepository.findAllForUpdateWithItemByIdIn(List.of(1L))).thenReturn(List.of(rejected));
+        when(bookingIntervalIndex.isFree(2L, null, null, 1L)).thenReturn(false);
+
+        List<BookingConfirmationResultDto> results = bookingService.bookingsConfirmation(userId, request);
+
+        assertNotNull(results.get(0).getError());
+        verify(bookingRepository, never()).updateStatus(any(), any());
+        verify(bookingIntervalIndex, never()).put(any());
+        verifyNoInteractions(itemBookingsUpdater);
+    }
+
+    @Test
+    void bookingsConfirmation_whenNothingAllowed_thenNotUpdate() {
+        BookingConfirmationRequestDto request = BookingConfirmationRequestDto.builder()
+                .bookingIds(List.of(1L))
+                .approved(false).build();
+        when(bookingRepository.findAllForUpdateWithItemByIdIn(List.of(1L))).thenReturn(Collections.emptyList());
+
+        List<BookingConfirmationResultDto> results = bookingService.bookingsConfirmation(userId, request);
+
+        assertNotNull(results.get(0).getError());
+        verify(bookingRepository, never()).updateStatus(any(), any());
+        verifyNoInteractions(bookingIntervalIndex, itemBookingsUpdater);
     }
 
     @Test
     void bookingConfirmation_whenBookingNotFound_thenEntityNotFoundExceptionThrow() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.bookingConfirmation(userId, bookingId, true));
@@ -199,7 +291,7 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
         booking.setItem(item);
         booking.setBooker(user);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.ofNullable(booking));
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.bookingConfirmation(userId, bookingId, true));
@@ -212,7 +304,7 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.APPROVED);
         booking.setItem(item);
         booking.setBooker(user);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
+        when(bookingRepository.findForUpdateById(bookingId)).thenReturn(Optional.ofNullable(booking));
 
         assertThrows(ValidationException.class,
                 () -> bookingService.bookingConfirmation(userId, bookingId, true));
@@ -228,152 +320,88 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void getAllBookingsByState_withOwnerAndCURRENTState_thenInvokeFindByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc() {
-        String state = "CURRENT";
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, true);
-        verify(bookingRepository, times(1))
-                .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(),
-                        any(),
-                        any(),
-                        any());
-    }
+    void getAllBookingsByState_whenInvoke_thenReturnMappedSliceOfRequestedPage() {
+        when(bookingRepository.findSlice(any(), any())).thenReturn(List.of(booking));
+        when(bookingMapper.bookingToResponseDto(booking)).thenReturn(bookingResponseDto);
 
-    @Test
-    void getAllBookingsByState_withOwnerAndFUTUREState_thenInvokeFindByItemOwnerIdAndStartAfterOrderByStartDesc() {
-        String state = "FUTURE";
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, true);
-        verify(bookingRepository, times(1))
-                .findByItemOwnerIdAndStartAfterOrderByStartDesc(anyLong(),
-                        any(),
-                        any());
-    }
+        List<BookingResponseDto> bookings = bookingService.getAllBookingsByState(userId, "ALL", 4, 2, true);
 
-    @Test
-    void getAllBookingsByState_withOwnerAndPASTState_thenInvokeFindByItemOwnerIdAndEndBeforeOrderByStartDesc() {
-        String state = "PAST";
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, true);
-        verify(bookingRepository, times(1))
-                .findByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(),
-                        any(),
-                        any());
+        assertEquals(List.of(bookingResponseDto), bookings);
+        verify(bookingRepository, times(1)).findSlice(any(), pageableArgumentCaptor.capture());
+        Pageable page = pageableArgumentCaptor.getValue();
+        assertEquals(4, page.getOffset());
+        assertEquals(2, page.getPageSize());
+        assertEquals(Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id")), page.getSort());
     }
 
     @Test
-    void getAllBookingsByState_withOwnerAndWAITINGState_thenInvokeFindByItemOwnerIdAndStatusOrderByStartDescWithWaitingInParams() {
-        String state = "WAITING";
+    void getAllBookingsByState_withOwnerAndCURRENTState_thenSortByStartDesc() {
+        bookingService.getAllBookingsByState(userId, "CURRENT", 0, 10, true);
 
-        bookingService.getAllBookingsByState(userId, state, 1, 1, true);
-        verify(bookingRepository, times(1))
-                .findByItemOwnerIdAndStatusOrderByStartDesc(anyLong(),
-                        bookingStatusArgumentCaptor.capture(),
-                        any());
-
-        BookingStatus status = bookingStatusArgumentCaptor.getValue();
-        assertEquals(BookingStatus.WAITING, status);
+        verify(bookingRepository, times(1)).findSlice(any(), pageableArgumentCaptor.capture());
+        assertEquals(Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id")),
+                pageableArgumentCaptor.getValue().getSort());
     }
 
     @Test
-    void getAllBookingsByState_withOwnerAndREJECTEDState_thenInvokeFindByItemOwnerIdAndStatusOrderByStartDescWithRejectedInParams() {
-        String state = "REJECTED";
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, true);
-        verify(bookingRepository, times(1))
-                .findByItemOwnerIdAndStatusOrderByStartDesc(anyLong(),
-                        bookingStatusArgumentCaptor.capture(),
-                        any());
+    void getAllBookingsByState_withNotOwnerAndCURRENTState_thenSortByStartAsc() {
+        bookingService.getAllBookingsByState(userId, "CURRENT", 0, 10, false);
 
-        BookingStatus status = bookingStatusArgumentCaptor.getValue();
-        assertEquals(BookingStatus.REJECTED, status);
+        verify(bookingRepository, times(1)).findSlice(any(), pageableArgumentCaptor.capture());
+        assertEquals(Sort.by(Sort.Order.asc("start"), Sort.Order.asc("id")),
+                pageableArgumentCaptor.getValue().getSort());
     }
 
     @Test
-    void getAllBookingsByState_withOwnerAndAllState_thenInvokeFindByItemOwnerIdOrderByStartDesc() {
-        String state = "ALL";
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, true);
-        verify(bookingRepository, times(1))
-                .findByItemOwnerIdOrderByStartDesc(anyLong(),
-                        any());
+    void getBookingsPageByState_whenMoreBookingsThanSize_thenReturnPageWithNextCursor() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Booking first = Booking.builder().id(2L).start(start).build();
+        Booking second = Booking.builder().id(1L).start(start.minusHours(1)).build();
+        when(bookingRepository.findSlice(any(), any())).thenReturn(List.of(first, second));
+        when(bookingMapper.bookingToResponseDto(first)).thenReturn(bookingResponseDto);
+
+        BookingPageDto page = bookingService.getBookingsPageByState(userId, "ALL", "", 1, false);
+
+        assertEquals(List.of(bookingResponseDto), page.getBookings());
+        assertEquals(PageCursor.of(start, 2L), PageCursor.decode(page.getNextCursor()));
+        verify(bookingRepository).findSlice(any(), pageableArgumentCaptor.capture());
+        assertEquals(0, pageableArgumentCaptor.getValue().getOffset());
+        assertEquals(2, pageableArgumentCaptor.getValue().getPageSize());
     }
 
     @Test
-    void getAllBookingsByState_withNotOwnerAndCURRENTState_thenInvokeFindByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc() {
-        String state = "CURRENT";
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, false);
-        verify(bookingRepository, times(1))
-                .findByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(anyLong(),
-                        any(),
-                        any(),
-                        any());
-    }
+    void getBookingsPageByState_withNotOwnerAndCURRENTState_thenSortByStartAsc() {
+        bookingService.getBookingsPageByState(userId, "CURRENT", "", 10, false);
 
-    @Test
-    void getAllBookingsByState_withNotOwnerAndFUTUREState_thenInvokeFindAllByBookerIdAndStartAfterOrderByStartDesc() {
-        String state = "FUTURE";
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, false);
-        verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStartAfterOrderByStartDesc(anyLong(),
-                        any(),
-                        any());
+        verify(bookingRepository, times(1)).findSlice(any(), pageableArgumentCaptor.capture());
+        assertEquals(Sort.by(Sort.Order.asc("start"), Sort.Order.asc("id")),
+                pageableArgumentCaptor.getValue().getSort());
     }
 
     @Test
-    void getAllBookingsByState_withNotOwnerAndPASTState_thenInvokeFindAllByBookerIdAndEndBeforeOrderByStartDesc() {
-        String state = "PAST";
-        when(userService.findById(anyLong())).thenReturn(new UserDto());
-
+    void getBookingsPageByState_whenLastPage_thenReturnPageWithoutNextCursor() {
+        when(bookingRepository.findSlice(any(), any())).thenReturn(List.of(booking));
+        when(bookingMapper.bookingToResponseDto(booking)).thenReturn(bookingResponseDto);
 
-        bookingService.getAllBookingsByState(userId, state, 1, 1, false);
-        verify(bookingRepository, times(1))
-                .findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(),
-                        any(),
-                        any());
-    }
+        String cursor = PageCursor.of(LocalDateTime.of(2030, 1, 1, 12, 0), 5L).encode();
+        BookingPageDto page = bookingService.getBookingsPageByState(userId, "FUTURE", cursor, 10, true);
 
-    @Test
-    void getAllBookingsByState_withNotOwnerAndWAITINGState_thenInvokeFindAllByBookerIdAndStatusOrderByStartDescWithWaitingInParams() {
-        String state = "WAITING";
-        when(userService.findById(anyLong())).thenReturn(new UserDto());
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, false);
-        verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStatusOrderByStartDesc(anyLong(),
-                        bookingStatusArgumentCaptor.capture(),
-                        any());
-
-        BookingStatus status = bookingStatusArgumentCaptor.getValue();
-        assertEquals(BookingStatus.WAITING, status);
+        assertEquals(List.of(bookingResponseDto), page.getBookings());
+        assertNull(page.getNextCursor());
     }
 
     @Test
-    void getAllBookingsByState_withNotOwnerAndREJECTEDState_thenInvokeFindAllByBookerIdAndStatusOrderByStartDescWithRejectedInParams() {
-        String state = "REJECTED";
-        when(userService.findById(anyLong())).thenReturn(new UserDto());
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, false);
-        verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStatusOrderByStartDesc(anyLong(),
-                        bookingStatusArgumentCaptor.capture(),
-                        any());
-
-        BookingStatus status = bookingStatusArgumentCaptor.getValue();
-        assertEquals(BookingStatus.REJECTED, status);
+    void getBookingsPageByState_withWrongState_thenUnsupportedStatusExceptionThrow() {
+        assertThrows(UnsupportedStatusException.class,
+                () -> bookingService.getBookingsPageByState(userId, "wrong", "", 1, true));
+        verify(bookingRepository, never()).findSlice(any(), any());
     }
 
     @Test
-    void getAllBookingsByState_withNotOwnerAndAllState_thenInvokeFindAllByBookerIdOrderByStartDesc() {
-        String state = "ALL";
-        when(userService.findById(anyLong())).thenReturn(new UserDto());
-
-        bookingService.getAllBookingsByState(userId, state, 1, 1, false);
-        verify(bookingRepository, times(1))
-                .findAllByBookerIdOrderByStartDesc(anyLong(),
-                        any());
+    void getBookingsPageByState_withMalformedCursor_thenValidationExceptionThrow() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsPageByState(userId, "ALL", "broken", 1, true));
+        verify(bookingRepository, never()).findSlice(any(), any());
     }
 
     @Test
@@ -382,7 +410,6 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
         booking.setItem(item);
         booking.setBooker(booker);
-        when(userService.findById(anyLong())).thenReturn(new UserDto());
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
         when(bookingMapper.bookingToResponseDto(booking)).thenReturn(bookingResponseDto);
 
@@ -394,7 +421,6 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingById_whenBookingNotFound_thenEntityNotFoundExceptionThrow() {
-        when(userService.findById(anyLong())).thenReturn(new UserDto());
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getBookingById(userId, bookingId));
@@ -407,7 +433,6 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
         booking.setItem(item);
         booking.setBooker(user);
-        when(userService.findById(anyLong())).thenReturn(new UserDto());
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
         when(bookingMapper.bookingToResponseDto(booking)).thenReturn(bookingResponseDto);
 
@@ -423,7 +448,6 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
         booking.setItem(item);
         booking.setBooker(booker);
-        when(userService.findById(anyLong())).thenReturn(new UserDto());
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
         when(bookingMapper.bookingToResponseDto(booking)).thenReturn(bookingResponseDto);
 
@@ -441,7 +465,6 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
         booking.setItem(item);
         booking.setBooker(booker);
-        when(userService.findById(anyLong())).thenReturn(new UserDto());
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
 
         assertThrows(EntityNotFoundException.class,
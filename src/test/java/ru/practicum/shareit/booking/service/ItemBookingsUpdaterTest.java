@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingsUpdaterTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private ItemBookingsUpdater itemBookingsUpdater;
+
+    @Test
+    void refresh_whenBookingsFound_thenSetLastAndNextPerItem() {
+        LocalDateTime now = LocalDateTime.now();
+        Item first = Item.builder().id(1L).build();
+        Item second = Item.builder().id(2L).nextBooking(Booking.builder().id(9L).build()).build();
+        Booking last = Booking.builder().id(3L).item(first).build();
+        Booking next = Booking.builder().id(4L).item(first).build();
+        List<Long> itemIds = List.of(1L, 2L);
+        when(bookingRepository.findLastBookingsByItemIds(itemIds, BookingStatus.APPROVED, now)).thenReturn(List.of(last));
+        when(bookingRepository.findNextBookingsByItemIds(itemIds, BookingStatus.APPROVED, now)).thenReturn(List.of(next));
+        when(itemRepository.findAllForUpdateByIdIn(itemIds)).thenReturn(List.of(first, second));
+
+        itemBookingsUpdater.refresh(itemIds, now);
+
+        assertEquals(last, first.getLastBooking());
+        assertEquals(next, first.getNextBooking());
+        assertNull(second.getLastBooking());
+        assertNull(second.getNextBooking());
+
+        InOrder inOrder = inOrder(itemRepository, bookingRepository);
+        inOrder.verify(itemRepository).findAllForUpdateByIdIn(itemIds);
+        inOrder.verify(bookingRepository).findLastBookingsByItemIds(itemIds, BookingStatus.APPROVED, now);
+    }
+
+    @Test
+    void refresh_whenNoItems_thenNotQueryBookings() {
+        itemBookingsUpdater.refresh(Collections.emptyList(), LocalDateTime.now());
+
+        verifyNoInteractions(bookingRepository, itemRepository);
+    }
+
+    @Test
+    void sweep_whenNextBookingStarted_thenRefreshThoseItems() {
+        Item item = Item.builder().id(1L).build();
+        Booking started = Booking.builder().id(3L).item(item).build();
+        when(itemRepository.findIdsWithNextBookingStartedBefore(any())).thenReturn(List.of(1L));
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(1L)), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(started));
+        when(bookingRepository.findNextBookingsByItemIds(eq(List.of(1L)), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(Collections.emptyList());
+        when(itemRepository.findAllForUpdateByIdIn(List.of(1L))).thenReturn(List.of(item));
+
+        itemBookingsUpdater.sweep();
+
+        assertEquals(started, item.getLastBooking());
+        assertNull(item.getNextBooking());
+    }
+
+    @Test
+    void sweep_whenNothingStarted_thenNotRefresh() {
+        when(itemRepository.findIdsWithNextBookingStartedBefore(any())).thenReturn(Collections.emptyList());
+
+        itemBookingsUpdater.sweep();
+
+        verifyNoInteractions(bookingRepository);
+    }
+}
@@ -13,6 +13,7 @@ import ru.practicum.shareit.exception.DataAccessException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemBooked;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -22,6 +23,8 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -78,6 +81,50 @@ class ItemControllerIT {
         verify(itemService, never()).create(userId, itemDto);
     }
 
+    @SneakyThrows
+    @Test
+    void createAll_whenInvoke_thenStatusCreatedItemDtosInBody() {
+        ItemDto itemDto = ItemDto.builder()
+                .name("Name")
+                .description("desc")
+                .available(true).build();
+        List<ItemDto> itemDtos = List.of(itemDto, itemDto);
+        when(itemService.createAll(userId, itemDtos)).thenReturn(itemDtos);
+
+        String result = mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(itemDtos)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(itemDtos), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void createAll_whenItemNotValid_thenStatusBadRequest() {
+        ItemDto itemDto = ItemDto.builder()
+                .description("desc")
+                .available(true).build();
+
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(itemDto))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).createAll(anyLong(), anyList());
+    }
+
     @SneakyThrows
     @Test
     void create_whenNotHeadUserId_thenStatusBadRequest() {
@@ -304,6 +351,35 @@ class ItemControllerIT {
         verify(itemService, never()).getAllItemsDyUserId(userId, from, size);
     }
 
+    @SneakyThrows
+    @Test
+    void autocomplete_whenInvoke_thenStatusOkNamesInBody() {
+        when(itemService.autocomplete(userId, "др", 10)).thenReturn(List.of("Дрель"));
+
+        mockMvc.perform(get("/items/autocomplete")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("prefix", "др"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"Дрель\"]"));
+    }
+
+    @SneakyThrows
+    @Test
+    void autocomplete_whenPrefixBlankOrLimitTooLarge_thenStatusBadRequest() {
+        mockMvc.perform(get("/items/autocomplete")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("prefix", " "))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/items/autocomplete")
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("prefix", "др")
+                        .param("limit", "51"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).autocomplete(anyLong(), anyString(), anyInt());
+    }
+
     @SneakyThrows
     @Test
     void createComment_whenInvoke_thenStatusOk() {
@@ -352,4 +428,61 @@ class ItemControllerIT {
                         .content(objectMapper.writeValueAsString(commentDto)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getComments_whenNextPageExists_thenStatusOkAndNextCursorHeader() {
+        Long itemId = 0L;
+        List<CommentDto> comments = List.of(CommentDto.builder().id(1L).text("test").build());
+        when(itemService.getComments(userId, itemId, "cursor", 1))
+                .thenReturn(CommentPageDto.builder().comments(comments).nextCursor("next").build());
+
+        String result = mockMvc.perform(get("/items/{itemId}/comments", itemId)
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("size", "1")
+                        .param("cursor", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(comments), result);
+    }
+
+    @SneakyThrows
+    @Test
+    void getComments_whenLastPage_thenNoNextCursorHeader() {
+        Long itemId = 0L;
+        when(itemService.getComments(userId, itemId, null, 10))
+                .thenReturn(CommentPageDto.builder().comments(List.of()).build());
+
+        mockMvc.perform(get("/items/{itemId}/comments", itemId)
+                        .header("X-Sharer-User-Id", userId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(content().json("[]"));
+    }
+
+    @SneakyThrows
+    @Test
+    void getComments_whenSizeInvalid_thenStatusBadRequest() {
+        mockMvc.perform(get("/items/{itemId}/comments", 0L)
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getComments(anyLong(), anyLong(), any(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getComments_whenSizeAboveLimit_thenStatusBadRequest() {
+        mockMvc.perform(get("/items/{itemId}/comments", 0L)
+                        .header("X-Sharer-User-Id", userId.toString())
+                        .param("size", String.valueOf(ItemController.MAX_COMMENTS_PAGE + 1)))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getComments(anyLong(), anyLong(), any(), anyInt());
+    }
+}
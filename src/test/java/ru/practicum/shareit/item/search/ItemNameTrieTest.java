@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameTrieTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ItemNameTrie trie;
+
+    @BeforeEach
+    void beforeEach() {
+        trie = new ItemNameTrie(itemRepository, transactionManager);
+    }
+
+    @Test
+    void rebuild_whenRepositoryHasItems_thenTrieReadyAndCompletesThem() {
+        when(itemRepository.findAll()).thenReturn(List.of(item(1L, "Дрель", true)));
+        assertFalse(trie.isReady());
+
+        trie.rebuild();
+
+        assertTrue(trie.isReady());
+        assertEquals(List.of("Дрель"), trie.complete("др", 10));
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    @Test
+    void rebuild_whenItemsChangedWhileLoading_thenKeepChanges() {
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            trie.index(item(2L, "Дрезина", true));
+            trie.remove(1L);
+            return List.of(item(1L, "Дрель", true));
+        });
+
+        trie.rebuild();
+
+        assertEquals(List.of("Дрезина"), trie.complete("др", 10));
+    }
+
+    @Test
+    void complete_whenPrefixMatches_thenReturnNamesIgnoringCase() {
+        trie.index(item(1L, "Дрель", true));
+        trie.index(item(2L, "Дрезина", true));
+        trie.index(item(3L, "Пила", true));
+
+        assertEquals(List.of("Дрезина", "Дрель"), trie.complete("ДР", 10));
+        assertEquals(List.of("Дрель"), trie.complete("дрел", 10));
+        assertTrue(trie.complete("молоток", 10).isEmpty());
+    }
+
+    @Test
+    void complete_whenSameNameSeveralTimes_thenRankByCountAndLimit() {
+        trie.index(item(1L, "Дрезина", true));
+        trie.index(item(2L, "Дрель", true));
+        trie.index(item(3L, "дрель", true));
+        trie.index(item(4L, "Дробилка", true));
+
+        assertEquals(List.of("Дрель", "Дрезина"), trie.complete("д", 2));
+    }
+
+    @Test
+    void complete_whenNamesChangedAfterQuery_thenReturnFreshRanking() {
+        trie.index(item(1L, "Дрель", true));
+        assertEquals(List.of("Дрель"), trie.complete("д", 10));
+
+        trie.index(item(2L, "Дрезина", true));
+        trie.index(item(3L, "Дрезина", true));
+        trie.index(item(1L, "Дрель", false));
+
+        assertEquals(List.of("Дрезина"), trie.complete("д", 10));
+    }
+
+    @Test
+    void index_whenItemNotAvailable_thenSkipIt() {
+        trie.index(item(1L, "Дрель", false));
+
+        assertTrue(trie.complete("др", 10).isEmpty());
+    }
+
+    @Test
+    void index_whenItemRenamed_thenOldNameNoLongerCompleted() {
+        trie.index(item(1L, "Дрель", true));
+
+        trie.index(item(1L, "Пила", true));
+
+        assertTrue(trie.complete("др", 10).isEmpty());
+        assertEquals(List.of("Пила"), trie.complete("п", 10));
+    }
+
+    @Test
+    void remove_whenItemIndexed_thenNotCompleted() {
+        trie.index(item(1L, "Дрель", true));
+        trie.index(item(2L, "Дрель ударная", true));
+
+        trie.remove(2L);
+
+        assertEquals(List.of("Дрель"), trie.complete("др", 10));
+    }
+
+    @Test
+    void index_whenTransactionRolledBack_thenRestorePreviousName() {
+        trie.index(item(1L, "Дрель", true));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            trie.index(item(1L, "Пила", true));
+            trie.remove(1L);
+            trie.index(item(2L, "Молоток", true));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            for (int i = synchronizations.size() - 1; i >= 0; i--) {
+                synchronizations.get(i).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("Дрель"), trie.complete("др", 10));
+        assertTrue(trie.complete("п", 10).isEmpty());
+        assertTrue(trie.complete("м", 10).isEmpty());
+    }
+
+    private Item item(Long id, String name, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .available(available).build();
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchCacheTest {
+
+    private ItemSearchCache cache;
+    private Pageable page;
+    private AtomicInteger loads;
+    private Supplier<List<ItemDto>> loader;
+
+    @BeforeEach
+    void beforeEach() {
+        cache = new ItemSearchCache(2, Duration.ofMinutes(1), "");
+        page = PageRequest.of(0, 10);
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return List.of(ItemDto.builder().id(1L).name("Дрель").build());
+        };
+    }
+
+    @Test
+    void get_whenSameTextInOtherCaseAndSamePage_thenLoadOnce() {
+        cache.get("Дрель", page, loader);
+        cache.get("дРЕЛЬ", page, loader);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_whenOtherPage_thenLoadAgain() {
+        cache.get("дрель", page, loader);
+        cache.get("дрель", PageRequest.of(1, 10), loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_whenEntryExpired_thenLoadAgain() {
+        cache = new ItemSearchCache(2, Duration.ZERO, "");
+
+        cache.get("дрель", page, loader);
+        cache.get("дрель", page, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_whenReplicaConfigured_thenLoadEveryTime() {
+        cache = new ItemSearchCache(2, Duration.ofMinutes(1), "jdbc:postgresql://replica:5432/shareit");
+
+        cache.get("дрель", page, loader);
+        cache.get("дрель", page, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_whenOverCapacity_thenKeepMaximumSize() {
+        cache.get("дрель", page, loader);
+        cache.get("пила", page, loader);
+        cache.get("молоток", page, loader);
+
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void evictMatching_whenQueryInNameOrDescription_thenEvictOnlyMatchingEntries() {
+        cache.get("дрел", page, loader);
+        cache.get("пила", page, loader);
+
+        cache.evictMatching("Отвертка", "Аккумуляторная ДРЕЛЬ-шуруповерт");
+
+        assertEquals(1, cache.size());
+        cache.get("пила", page, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_whenItemChangedDuringLoad_thenNotCacheResult() {
+        cache.get("дрель", page, () -> {
+            cache.evictMatching("Дрель", null);
+            return loader.get();
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictMatching_whenInTransaction_thenEvictAgainAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evictMatching("Дрель", "Простая");
+            cache.get("дрель", page, loader);
+            assertEquals(1, cache.size());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrigramItemSearchEngine engine;
+    private Pageable page;
+
+    @BeforeEach
+    void beforeEach() {
+        engine = new TrigramItemSearchEngine(itemRepository, transactionManager);
+        page = PageRequest.of(0, 10);
+    }
+
+    @Test
+    void rebuild_whenRepositoryHasItems_thenEngineReadyAndFindsThem() {
+        when(itemRepository.findAll()).thenReturn(List.of(item(1L, "Дрель", "Простая дрель", true)));
+        assertFalse(engine.isReady());
+
+        engine.rebuild();
+
+        assertTrue(engine.isReady());
+        assertEquals(List.of(1L), engine.search("дрель", page));
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    @Test
+    void rebuild_whenItemsChangedWhileLoading_thenKeepChanges() {
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            engine.index(item(2L, "Дрель", "Новая", true));
+            engine.remove(1L);
+            return List.of(item(1L, "Дрель", "Старая", true));
+        });
+
+        engine.rebuild();
+
+        assertEquals(List.of(2L), engine.search("дрель", page));
+    }
+
+    @Test
+    void search_whenSubstringInNameOrDescription_thenMatchIgnoringCase() {
+        engine.index(item(1L, "Дрель", "Ударная", true));
+        engine.index(item(2L, "Отвертка", "Аккумуляторная ДРЕЛЬ-шуруповерт", true));
+        engine.index(item(3L, "Пила", "Простая", true));
+
+        assertEquals(List.of(1L, 2L), engine.search("ДрЕл", page));
+        assertEquals(List.of(2L), engine.search("уляторн", page));
+        assertTrue(engine.search("молоток", page).isEmpty());
+    }
+
+    @Test
+    void search_whenQueryShorterThanTrigram_thenMatchBySubstring() {
+        engine.index(item(1L, "Пила", "Простая", true));
+        engine.index(item(2L, "Дрель", "Ударная", true));
+
+        assertEquals(List.of(1L), engine.search("пи", page));
+    }
+
+    @Test
+    void search_whenItemNotAvailable_thenSkipIt() {
+        engine.index(item(1L, "Дрель", "Простая дрель", false));
+
+        assertTrue(engine.search("дрель", page).isEmpty());
+    }
+
+    @Test
+    void search_whenSeveralMatches_thenRankNameAboveDescriptionAndWordStartAboveMiddle() {
+        engine.index(item(1L, "Набор", "Дрель в комплекте", true));
+        engine.index(item(2L, "Супердрель", "Мощная", true));
+        engine.index(item(3L, "Дрель аккумуляторная", "Легкая", true));
+        engine.index(item(4L, "Дрель", "Простая", true));
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), engine.search("дрель", page));
+    }
+
+    @Test
+    void search_withPage_thenSkipAndLimitRankedResults() {
+        engine.index(item(1L, "Дрель", "Простая", true));
+        engine.index(item(2L, "Дрель", "Ударная", true));
+        engine.index(item(3L, "Дрель", "Угловая", true));
+
+        assertEquals(List.of(2L), engine.search("дрель", PageRequest.of(1, 1)));
+    }
+
+    @Test
+    void index_whenItemUpdated_thenOldTextNoLongerMatches() {
+        engine.index(item(1L, "Дрель", "Простая", true));
+
+        engine.index(item(1L, "Пила", "Простая", true));
+
+        assertTrue(engine.search("дрель", page).isEmpty());
+        assertEquals(List.of(1L), engine.search("пила", page));
+    }
+
+    @Test
+    void remove_whenItemIndexed_thenNotFound() {
+        engine.index(item(1L, "Дрель", "Простая", true));
+
+        engine.remove(1L);
+
+        assertTrue(engine.search("дрель", page).isEmpty());
+    }
+
+    @Test
+    void index_whenTransactionRolledBack_thenRestorePreviousVersion() {
+        engine.index(item(1L, "Дрель", "Простая", true));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.index(item(1L, "Пила", "Простая", true));
+            engine.index(item(2L, "Молоток", "Простой", true));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1L), engine.search("дрель", page));
+        assertTrue(engine.search("пила", page).isEmpty());
+        assertTrue(engine.search("молоток", page).isEmpty());
+    }
+
+    private Item item(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available).build();
+    }
+}
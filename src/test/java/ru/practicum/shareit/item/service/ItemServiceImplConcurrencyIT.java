@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.repository.CommentsRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemServiceImplConcurrencyIT {
+
+    private static final int THREADS = 8;
+    private static final int COMMENTS = 40;
+    private static final int UPDATES = 40;
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final TrigramItemSearchEngine itemSearchEngine;
+    private final ItemNameTrie itemNameTrie;
+    private final BookingRepository bookingRepository;
+    private final CommentsRepository commentsRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void beforeEach() {
+        ownerId = userService.create(UserDto.builder()
+                .name("Owner")
+                .email("comments-concurrency-owner@mail.ru").build()).getId();
+        bookerId = userService.create(UserDto.builder()
+                .name("Booker")
+                .email("comments-concurrency-booker@mail.ru").build()).getId();
+        itemId = itemService.create(ownerId, ItemDto.builder()
+                .name("Item")
+                .description("Concurrency")
+                .available(true).build()).getId();
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        bookingRepository.save(Booking.builder()
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(userRepository.findById(bookerId).orElseThrow())
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.APPROVED).build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        commentsRepository.deleteAll(findCommentsOfTestItem());
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(itemId))
+                .collect(Collectors.toList()));
+        itemRepository.deleteById(itemId);
+        userRepository.deleteAllById(List.of(ownerId, bookerId));
+        bookingIntervalIndex.rebuild();
+        itemSearchEngine.rebuild();
+        itemNameTrie.rebuild();
+    }
+
+    @Test
+    void createComment_whenItemUpdatedConcurrently_thenCommentCountMatchesComments() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < COMMENTS; i++) {
+                String text = "Comment " + i;
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    return itemService.createComment(bookerId, itemId, CommentDto.builder().text(text).build());
+                }));
+            }
+            for (int i = 0; i < UPDATES; i++) {
+                String description = "Description " + i;
+                results.add(executor.submit(() -> {
+                    startSignal.await();
+                    return itemService.update(ownerId, itemId, ItemDto.builder().description(description).build());
+                }));
+            }
+            startSignal.countDown();
+
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(COMMENTS, findCommentsOfTestItem().size());
+        assertEquals(COMMENTS, jdbcTemplate.queryForObject(
+                "SELECT comment_count FROM items WHERE id = ?", Integer.class, itemId));
+        assertEquals(COMMENTS, itemService.getByItemId(ownerId, itemId).getCommentCount());
+    }
+
+    private List<Comment> findCommentsOfTestItem() {
+        return commentsRepository.findAll().stream()
+                .filter(comment -> comment.getItem().getId().equals(itemId))
+                .collect(Collectors.toList());
+    }
+}
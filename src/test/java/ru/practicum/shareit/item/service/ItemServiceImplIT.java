@@ -8,17 +8,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemBooked;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.StatementCount;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.allOf;
@@ -26,6 +30,7 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.util.SqlStatementCounter.count;
 
 @Transactional
 @SpringBootTest(
@@ -152,6 +157,28 @@ class ItemServiceImplIT {
         assertEquals(itemTarget.getNextBooking().getId(), bookingIdNext);
     }
 
+    @Test
+    void getAllItemsDyUserId_whenPageGrows_thenStatementCountStaysConstant() {
+        UserDto userDtoBooker = UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        Long bookerId = userService.create(userDtoBooker).getId();
+        createBookedAndCommentedItem(bookerId);
+        long statementsForOneItem = count(em, () -> itemService.getAllItemsDyUserId(userId, 0, 10)).getTotal();
+
+        for (int i = 0; i < 5; i++) {
+            createBookedAndCommentedItem(bookerId);
+        }
+        long statementsForSixItems = count(em, () -> {
+            List<ItemBooked> items = itemService.getAllItemsDyUserId(userId, 0, 10);
+            assertThat(items, hasSize(6));
+            items.forEach(item -> assertThat(item.getComments(), hasSize(1)));
+        }).getTotal();
+
+        assertThat(statementsForOneItem, greaterThan(0L));
+        assertEquals(statementsForOneItem, statementsForSixItems);
+    }
+
     @Test
     void delete() {
         Long itemId = itemService.create(userId, itemDto).getId();
@@ -219,4 +246,158 @@ class ItemServiceImplIT {
         assertEquals(commentSaved.getAuthor().getName(), userDtoBooker.getName());
         assertNotNull(commentSaved.getItem());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createAll_whenManyItems_thenInsertInBatches() {
+        List<ItemDto> itemDtos = Collections.nCopies(120, itemDto);
+
+        List<ItemDto> created = new ArrayList<>();
+        StatementCount statements = count(em, () -> created.addAll(itemService.createAll(userId, itemDtos)));
+
+        assertThat(created, hasSize(120));
+        assertThat(created.stream().map(ItemDto::getId).distinct().count(), equalTo(120L));
+        // Все вставки идут через один подготовленный запрос, пакетами по hibernate.jdbc.batch_size.
+        assertEquals(new StatementCount(0, 1, 0, 0), statements);
+        assertThat(itemService.getAllItemsDyUserId(userId, 0, 200), hasSize(120));
+    }
+
+    @Test
+    void create_whenOwnerKnown_thenOnlyInsertItem() {
+        assertEquals(new StatementCount(0, 1, 0, 0), count(em, () -> itemService.create(userId, itemDto)));
+    }
+
+    @Test
+    void update_thenLoadItemAndUpdateIt() {
+        Long itemId = itemService.create(userId, itemDto).getId();
+        ItemDto itemDtoUpdate = ItemDto.builder().available(false).build();
+
+        assertEquals(new StatementCount(1, 0, 1, 0), count(em, () -> itemService.update(userId, itemId, itemDtoUpdate)));
+    }
+
+    @Test
+    void getByItemId_whenOwner_thenLoadItemWithBookingsAndComments() {
+        UserDto userDtoBooker = UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        Long bookerId = userService.create(userDtoBooker).getId();
+        Long itemId = createBookedAndCommentedItem(bookerId);
+
+        assertEquals(StatementCount.selects(2), count(em, () -> itemService.getByItemId(userId, itemId)));
+    }
+
+    @Test
+    void getAllItemsDyUserId_thenLoadPageAndLatestCommentsOfPage() {
+        UserDto userDtoBooker = UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        Long bookerId = userService.create(userDtoBooker).getId();
+        createBookedAndCommentedItem(bookerId);
+        createBookedAndCommentedItem(bookerId);
+
+        assertEquals(StatementCount.selects(3), count(em, () -> itemService.getAllItemsDyUserId(userId, 0, 10)));
+    }
+
+    @Test
+    void delete_thenLoadItemAndDeleteIt() {
+        Long itemId = itemService.create(userId, itemDto).getId();
+
+        assertEquals(new StatementCount(1, 0, 0, 1), count(em, () -> itemService.delete(userId, itemId)));
+    }
+
+    @Test
+    void search_thenLoadFoundItemsInOneStatementAndThenHitCache() {
+        itemService.create(userId, itemDto);
+        itemService.create(userId, ItemDto.builder()
+                .name("Отвертка крестовая")
+                .description("Отвертка")
+                .available(true).build());
+
+        assertEquals(StatementCount.selects(1), count(em, () -> itemService.search(userId, "отвертка", 0, 10)));
+        assertEquals(StatementCount.selects(0), count(em, () -> itemService.search(userId, "отвертка", 0, 10)));
+    }
+
+    @Test
+    void autocomplete_whenTrieReady_thenNoStatements() {
+        itemService.create(userId, itemDto);
+
+        assertEquals(StatementCount.selects(0), count(em, () -> itemService.autocomplete(userId, "отв", 10)));
+    }
+
+    @Test
+    void createComment_thenLoadAuthorLockItemAndIncrementCommentCount() {
+        UserDto userDtoBooker = UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        Long bookerId = userService.create(userDtoBooker).getId();
+        Long itemId = createBookedAndCommentedItem(bookerId);
+        CommentDto commentDto = CommentDto.builder().text("text").build();
+
+        assertEquals(new StatementCount(3, 1, 1, 0), count(em, () -> itemService.createComment(bookerId, itemId, commentDto)));
+        assertEquals(2, itemService.getByItemId(userId, itemId).getCommentCount());
+    }
+
+    @Test
+    void getByItemId_whenManyComments_thenEmbedOnlyLatest() {
+        UserDto userDtoBooker = UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        Long bookerId = userService.create(userDtoBooker).getId();
+        Long itemId = createBookedAndCommentedItem(bookerId);
+        for (int i = 0; i < ItemServiceImpl.LATEST_COMMENTS + 2; i++) {
+            itemService.createComment(bookerId, itemId, CommentDto.builder().text("text " + i).build());
+        }
+        em.flush();
+        em.clear();
+
+        ItemBooked item = itemService.getByItemId(userId, itemId);
+
+        assertEquals(ItemServiceImpl.LATEST_COMMENTS + 3, item.getCommentCount());
+        assertThat(item.getComments(), hasSize(ItemServiceImpl.LATEST_COMMENTS));
+        assertEquals("text " + (ItemServiceImpl.LATEST_COMMENTS + 1), item.getComments().get(0).getText());
+        List<ItemBooked> items = itemService.getAllItemsDyUserId(userId, 0, 10);
+        assertThat(items.get(0).getComments(), hasSize(ItemServiceImpl.LATEST_COMMENTS));
+        assertEquals(item.getComments(), items.get(0).getComments());
+    }
+
+    @Test
+    void getComments_whenPagedByCursor_thenReturnEachCommentOnce() {
+        UserDto userDtoBooker = UserDto.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        Long bookerId = userService.create(userDtoBooker).getId();
+        Long itemId = createBookedAndCommentedItem(bookerId);
+        for (int i = 0; i < 4; i++) {
+            itemService.createComment(bookerId, itemId, CommentDto.builder().text("text " + i).build());
+        }
+        em.flush();
+        em.clear();
+
+        List<CommentDto> comments = new ArrayList<>();
+        CommentPageDto page = itemService.getComments(userId, itemId, null, 2);
+        comments.addAll(page.getComments());
+        while (page.getNextCursor() != null) {
+            String cursor = page.getNextCursor();
+            assertEquals(StatementCount.selects(2), count(em, () -> itemService.getComments(userId, itemId, cursor, 2)));
+            page = itemService.getComments(userId, itemId, cursor, 2);
+            comments.addAll(page.getComments());
+        }
+
+        assertThat(comments, hasSize(5));
+        assertThat(comments.stream().map(CommentDto::getId).distinct().count(), equalTo(5L));
+        assertEquals("text 3", comments.get(0).getText());
+        assertEquals("text", comments.get(4).getText());
+    }
+
+    private Long createBookedAndCommentedItem(Long bookerId) {
+        Long itemId = itemService.create(userId, itemDto).getId();
+        LocalDateTime start = LocalDateTime.now();
+        BookingRequestDto bookingRequestDto = BookingRequestDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusNanos(100)).build();
+        Long bookingId = bookingService.create(bookerId, bookingRequestDto).getId();
+        bookingService.bookingConfirmation(userId, bookingId, true);
+        itemService.createComment(bookerId, itemId, CommentDto.builder().text("text").build());
+        return itemId;
+    }
+}
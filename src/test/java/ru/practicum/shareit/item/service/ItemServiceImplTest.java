@@ -10,11 +10,14 @@ import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingDtoForItemResponseDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.exception.DataAccessException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemBooked;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -23,19 +26,27 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentsRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.itemRequest.model.ItemRequest;
 import ru.practicum.shareit.itemRequest.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.PageCursor;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,8 +57,16 @@ class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
     private CommentsRepository commentsRepository;
     @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemNameTrie itemNameTrie;
+    @Spy
+    private ItemSearchCache itemSearchCache = new ItemSearchCache(100, Duration.ofMinutes(1), "");
+    @Mock
     private ItemRequestRepository itemRequestRepository;
     @Mock
     private UserService userService;
@@ -56,7 +75,7 @@ class ItemServiceImplTest {
     @Mock
     private ItemMapper itemMapper;
     @Mock
-    private UserMapper userMapper;
+    private UserRepository userRepository;
     @Mock
     private CommentMapper commentMapper;
     @InjectMocks
@@ -69,7 +88,6 @@ class ItemServiceImplTest {
 
     private Long itemId;
     private Long userId;
-    private UserDto userDto;
     private User user;
     private ItemDto itemDto;
     private Item item;
@@ -78,7 +96,6 @@ class ItemServiceImplTest {
     void beforeEach() {
         itemId = 0L;
         userId = 0L;
-        userDto = UserDto.builder().build();
         user = User.builder().id(0L).build();
         itemDto = ItemDto.builder().requestId(0L).build();
         item = Item.builder().build();
@@ -86,8 +103,7 @@ class ItemServiceImplTest {
 
     @Test
     void create_withUserAndRequestExist_thenReturnItemDto() {
-        when(userService.findById(userId)).thenReturn(userDto);
-        when(userMapper.userFromDto(userDto)).thenReturn(user);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
 
         Item itemSaved = Item.builder().build();
         ItemDto savedItemDto = ItemDto.builder().id(0L).name("saved").build();
@@ -111,11 +127,48 @@ class ItemServiceImplTest {
         assertEquals(0L, savedItem.getOwner().getId());
         assertNotNull(savedItem.getRequest());
         assertEquals(0L, savedItem.getRequest().getId());
+        verify(itemSearchEngine).index(itemSaved);
+    }
+
+    @Test
+    void createAll_withUserAndRequestExist_thenSaveAllInOneCallAndIndex() {
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+        ItemRequest request = ItemRequest.builder().id(0L).build();
+        when(itemRequestRepository.findAllById(Set.of(0L))).thenReturn(List.of(request));
+
+        ItemDto withoutRequest = ItemDto.builder().name("other").build();
+        Item other = Item.builder().build();
+        when(itemMapper.itemFromDto(itemDto)).thenReturn(item);
+        when(itemMapper.itemFromDto(withoutRequest)).thenReturn(other);
+        when(itemRepository.saveAll(List.of(item, other))).thenReturn(List.of(item, other));
+        when(itemMapper.itemToDto(any())).thenReturn(itemDto);
+
+        List<ItemDto> actualItemDtos = itemService.createAll(userId, List.of(itemDto, withoutRequest));
+
+        assertEquals(2, actualItemDtos.size());
+        assertEquals(user, item.getOwner());
+        assertEquals(request, item.getRequest());
+        assertEquals(user, other.getOwner());
+        assertNull(other.getRequest());
+        verify(itemRepository, never()).save(any());
+        verify(itemSearchEngine).index(item);
+        verify(itemSearchEngine).index(other);
+    }
+
+    @Test
+    void createAll_withRequestNotExist_thenEntityNotFoundExceptionThrow() {
+        when(itemRequestRepository.findAllById(Set.of(0L))).thenReturn(Collections.emptyList());
+
+        List<ItemDto> itemDtos = List.of(itemDto);
+        assertThrows(EntityNotFoundException.class,
+                () -> itemService.createAll(userId, itemDtos));
+        verify(itemRepository, never()).saveAll(any());
+        verify(itemSearchEngine, never()).index(any());
     }
 
     @Test
     void create_withUserNotExist_thenEntityNotFoundExceptionThrow() {
-        doThrow(EntityNotFoundException.class).when(userService).findById(userId);
+        doThrow(EntityNotFoundException.class).when(userService).checkExists(userId);
 
         assertThrows(EntityNotFoundException.class,
                 () -> itemService.create(userId, itemDto));
@@ -140,7 +193,8 @@ class ItemServiceImplTest {
                 .owner(User.builder().id(0L).build())
                 .build();
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(itemOld));
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.of(itemOld));
+        when(itemRepository.save(itemOld)).thenReturn(itemOld);
         doAnswer(invocation -> {
             ItemDto itemDto = invocation.getArgument(0, ItemDto.class);
             Item item = invocation.getArgument(1, Item.class);
@@ -161,7 +215,7 @@ class ItemServiceImplTest {
 
     @Test
     void update_whenItemNotExist_thenEntityNotFoundExceptionThrow() {
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> itemService.update(userId, itemId, itemDto));
@@ -175,7 +229,7 @@ class ItemServiceImplTest {
                 .owner(User.builder().id(1L).build())
                 .build();
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(itemOld));
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.of(itemOld));
 
         assertThrows(DataAccessException.class,
                 () -> itemService.update(userId, itemId, itemDto));
@@ -187,27 +241,56 @@ class ItemServiceImplTest {
     void getByItemId_whenInvoke_thenReturnItemBooked() {
         User user = User.builder().id(0L).build();
         item.setOwner(user);
+        Booking lastBooking = Booking.builder().id(1L).start(LocalDateTime.now().minusDays(1)).build();
+        Booking nextBooking = Booking.builder().id(2L).start(LocalDateTime.now().plusDays(1)).build();
+        item.setLastBooking(lastBooking);
+        item.setNextBooking(nextBooking);
         ItemBooked itemBooked = ItemBooked.builder().build();
-        BookingDtoForItemResponseDto booking = BookingDtoForItemResponseDto.builder().id(1L).build();
         List<Comment> comments = List.of(Comment.builder().build());
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithBookingsById(itemId)).thenReturn(Optional.of(item));
         when(itemMapper.itemToItemBooked(item)).thenReturn(itemBooked);
-        when(bookingMapper.bookingForItemResponseDto(any())).thenReturn(booking);
-        when(commentsRepository.findByItem(any())).thenReturn(comments);
+        when(bookingMapper.bookingForItemResponseDto(lastBooking))
+                .thenReturn(BookingDtoForItemResponseDto.builder().id(1L).build());
+        when(bookingMapper.bookingForItemResponseDto(nextBooking))
+                .thenReturn(BookingDtoForItemResponseDto.builder().id(2L).build());
+        when(commentsRepository.findAllByItemIdOrderByCreatedDescIdDesc(anyLong(), any())).thenReturn(comments);
         when(commentMapper.commentToDto(any())).thenReturn(CommentDto.builder().build());
 
         ItemBooked actualItemBooked = itemService.getByItemId(userId, itemId);
 
         assertNotNull(actualItemBooked);
-        assertNotNull(actualItemBooked.getLastBooking());
-        assertNotNull(actualItemBooked.getNextBooking());
+        assertEquals(1L, actualItemBooked.getLastBooking().getId());
+        assertEquals(2L, actualItemBooked.getNextBooking().getId());
+        verifyNoInteractions(bookingIntervalIndex);
         assertNotNull(actualItemBooked.getComments());
         assertFalse(actualItemBooked.getComments().isEmpty());
     }
 
+    @Test
+    void getByItemId_whenNextBookingAlreadyStarted_thenTakeBookingsFromIndex() {
+        User user = User.builder().id(0L).build();
+        item.setId(itemId);
+        item.setOwner(user);
+        item.setNextBooking(Booking.builder().id(2L).start(LocalDateTime.now().minusMinutes(1)).build());
+        ItemBooked itemBooked = ItemBooked.builder().build();
+        BookingDtoForItemResponseDto booking = BookingDtoForItemResponseDto.builder().id(2L).build();
+        BookingInterval interval = BookingInterval.builder().id(2L).build();
+        when(itemRepository.findWithBookingsById(itemId)).thenReturn(Optional.of(item));
+        when(itemMapper.itemToItemBooked(item)).thenReturn(itemBooked);
+        when(bookingIntervalIndex.findLast(eq(itemId), any())).thenReturn(Optional.of(interval));
+        when(bookingIntervalIndex.findNext(eq(itemId), any())).thenReturn(Optional.empty());
+        when(bookingMapper.bookingIntervalForItemResponseDto(interval)).thenReturn(booking);
+        when(commentsRepository.findAllByItemIdOrderByCreatedDescIdDesc(anyLong(), any())).thenReturn(Collections.emptyList());
+
+        ItemBooked actualItemBooked = itemService.getByItemId(userId, itemId);
+
+        assertEquals(2L, actualItemBooked.getLastBooking().getId());
+        assertNull(actualItemBooked.getNextBooking());
+    }
+
     @Test
     void getByItemId_whenItemNotFound_thenEntityNotFoundExceptionThrow() {
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(itemRepository.findWithBookingsById(itemId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> itemService.getByItemId(userId, itemId));
@@ -219,9 +302,9 @@ class ItemServiceImplTest {
         item.setOwner(user);
         ItemBooked itemBooked = ItemBooked.builder().build();
         List<Comment> comments = List.of(Comment.builder().build());
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithBookingsById(itemId)).thenReturn(Optional.of(item));
         when(itemMapper.itemToItemBooked(item)).thenReturn(itemBooked);
-        when(commentsRepository.findByItem(any())).thenReturn(comments);
+        when(commentsRepository.findAllByItemIdOrderByCreatedDescIdDesc(anyLong(), any())).thenReturn(comments);
         when(commentMapper.commentToDto(any())).thenReturn(CommentDto.builder().build());
 
         ItemBooked actualItemBooked = itemService.getByItemId(userId, itemId);
@@ -229,6 +312,7 @@ class ItemServiceImplTest {
         assertNotNull(actualItemBooked);
         assertNull(actualItemBooked.getLastBooking());
         assertNull(actualItemBooked.getNextBooking());
+        verifyNoInteractions(bookingIntervalIndex);
         assertNotNull(actualItemBooked.getComments());
         assertFalse(actualItemBooked.getComments().isEmpty());
     }
@@ -238,18 +322,16 @@ class ItemServiceImplTest {
         User user = User.builder().id(0L).build();
         item.setOwner(user);
         ItemBooked itemBooked = ItemBooked.builder().build();
-        BookingDtoForItemResponseDto booking = BookingDtoForItemResponseDto.builder().id(1L).build();
         List<Comment> comments = Collections.emptyList();
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findWithBookingsById(itemId)).thenReturn(Optional.of(item));
         when(itemMapper.itemToItemBooked(item)).thenReturn(itemBooked);
-        when(bookingMapper.bookingForItemResponseDto(any())).thenReturn(booking);
-        when(commentsRepository.findByItem(any())).thenReturn(comments);
+        when(commentsRepository.findAllByItemIdOrderByCreatedDescIdDesc(anyLong(), any())).thenReturn(comments);
 
         ItemBooked actualItemBooked = itemService.getByItemId(userId, itemId);
 
         assertNotNull(actualItemBooked);
-        assertNotNull(actualItemBooked.getLastBooking());
-        assertNotNull(actualItemBooked.getNextBooking());
+        assertNull(actualItemBooked.getLastBooking());
+        assertNull(actualItemBooked.getNextBooking());
         assertNotNull(actualItemBooked.getComments());
         assertTrue(actualItemBooked.getComments().isEmpty());
     }
@@ -259,14 +341,23 @@ class ItemServiceImplTest {
         int from = 1;
         int size = 1;
         Pageable page = PageRequest.of(from, size);
+        item.setId(itemId);
         List<Item> items = List.of(item);
         ItemBooked itemBooked = ItemBooked.builder().build();
-        BookingDtoForItemResponseDto booking = BookingDtoForItemResponseDto.builder().id(1L).build();
-        List<Comment> comments = List.of(Comment.builder().build());
+        Booking lastBooking = Booking.builder().id(1L).item(item).start(LocalDateTime.now().minusDays(1)).build();
+        Booking nextBooking = Booking.builder().id(2L).item(item).start(LocalDateTime.now().plusDays(1)).build();
+        item.setLastBooking(lastBooking);
+        item.setNextBooking(nextBooking);
+        BookingDtoForItemResponseDto lastBookingDto = BookingDtoForItemResponseDto.builder().id(1L).build();
+        BookingDtoForItemResponseDto nextBookingDto = BookingDtoForItemResponseDto.builder().id(2L).build();
+        List<Comment> comments = List.of(Comment.builder().item(item).build());
         when(itemRepository.findAllByOwner_Id(userId, page)).thenReturn(items);
         when(itemMapper.itemToItemBooked(item)).thenReturn(itemBooked);
-        when(bookingMapper.bookingForItemResponseDto(any())).thenReturn(booking);
-        when(commentsRepository.findByItem(any())).thenReturn(comments);
+        when(bookingMapper.bookingForItemResponseDto(lastBooking)).thenReturn(lastBookingDto);
+        when(bookingMapper.bookingForItemResponseDto(nextBooking)).thenReturn(nextBookingDto);
+        when(commentsRepository.findLatestIdsByItemIdIn(List.of(itemId), ItemServiceImpl.LATEST_COMMENTS))
+                .thenReturn(List.of(5L));
+        when(commentsRepository.findAllWithAuthorByIdIn(List.of(5L))).thenReturn(comments);
         when(commentMapper.commentToDto(any())).thenReturn(CommentDto.builder().build());
 
         List<ItemBooked> actualItems = itemService.getAllItemsDyUserId(userId, from, size);
@@ -276,10 +367,11 @@ class ItemServiceImplTest {
 
         ItemBooked actualItem = actualItems.get(0);
 
-        assertNotNull(actualItem.getLastBooking());
-        assertNotNull(actualItem.getNextBooking());
+        assertEquals(1L, actualItem.getLastBooking().getId());
+        assertEquals(2L, actualItem.getNextBooking().getId());
         assertNotNull(actualItem.getComments());
         assertFalse(actualItem.getComments().isEmpty());
+        verify(commentsRepository, never()).findAllByItemIdOrderByCreatedDescIdDesc(any(), any());
     }
 
     @Test
@@ -293,6 +385,7 @@ class ItemServiceImplTest {
 
         assertNotNull(actualItems);
         assertTrue(actualItems.isEmpty());
+        verify(commentsRepository, never()).findLatestIdsByItemIdIn(any(), anyInt());
     }
 
     @Test
@@ -304,6 +397,7 @@ class ItemServiceImplTest {
         itemService.delete(userId, itemId);
 
         verify(itemRepository, times(1)).deleteById(itemId);
+        verify(itemSearchEngine, times(1)).remove(itemId);
     }
 
     @Test
@@ -344,6 +438,61 @@ class ItemServiceImplTest {
         assertEquals(itemDto, actualItems.get(0));
     }
 
+    @Test
+    void search_whenRepeatedWithSameTextAndPage_thenServeFromCacheUntilMatchingItemChanges() {
+        Pageable page = PageRequest.of(0, 1);
+        item.setName("Дрель");
+        when(itemRepository.search(any(), eq(page))).thenReturn(List.of(item));
+        when(itemMapper.itemToDto(item)).thenReturn(itemDto);
+
+        itemService.search(userId, "дрель", 0, 1);
+        itemService.search(userId, "ДРЕЛЬ", 0, 1);
+        verify(itemRepository, times(1)).search(any(), eq(page));
+
+        Item other = Item.builder().id(1L).name("Пила").owner(user).build();
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(other));
+        itemService.delete(userId, 1L);
+        itemService.search(userId, "дрель", 0, 1);
+        verify(itemRepository, times(1)).search(any(), eq(page));
+
+        Item drill = Item.builder().id(2L).name("Дрель ударная").owner(user).build();
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(drill));
+        itemService.delete(userId, 2L);
+        itemService.search(userId, "дрель", 0, 1);
+        verify(itemRepository, times(2)).search(any(), eq(page));
+    }
+
+    @Test
+    void search_whenIndexReady_thenReturnItemsInIndexOrder() {
+        String text = "any";
+        Pageable page = PageRequest.of(0, 2);
+        Item first = Item.builder().id(2L).build();
+        Item second = Item.builder().id(1L).build();
+        ItemDto firstDto = ItemDto.builder().id(2L).build();
+        ItemDto secondDto = ItemDto.builder().id(1L).build();
+        when(itemSearchEngine.isReady()).thenReturn(true);
+        when(itemSearchEngine.search(text, page)).thenReturn(List.of(2L, 1L));
+        when(itemRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(second, first));
+        when(itemMapper.itemToDto(first)).thenReturn(firstDto);
+        when(itemMapper.itemToDto(second)).thenReturn(secondDto);
+
+        List<ItemDto> actualItems = itemService.search(userId, text, 0, 2);
+
+        assertEquals(List.of(firstDto, secondDto), actualItems);
+        verify(itemRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void search_whenIndexReadyAndNothingFound_thenEntityNotFoundExceptionThrows() {
+        String text = "any";
+        when(itemSearchEngine.isReady()).thenReturn(true);
+        when(itemSearchEngine.search(eq(text), any())).thenReturn(Collections.emptyList());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> itemService.search(userId, text, 0, 1));
+        verify(itemRepository, never()).findAllById(any());
+    }
+
     @Test
     void search_withEmptyText_thenReturnCollectionItemDto() {
         String text = "";
@@ -367,20 +516,42 @@ class ItemServiceImplTest {
                 () -> itemService.search(userId, text, from, size));
     }
 
+    @Test
+    void autocomplete_whenTrieReady_thenCompleteFromTrie() {
+        when(itemNameTrie.isReady()).thenReturn(true);
+        when(itemNameTrie.complete("др", 5)).thenReturn(List.of("Дрель"));
+
+        assertEquals(List.of("Дрель"), itemService.autocomplete(userId, "др", 5));
+        verify(itemRepository, never()).findNamesByPrefix(any(), any());
+    }
+
+    @Test
+    void autocomplete_whenTrieNotReady_thenCompleteFromRepository() {
+        when(itemRepository.findNamesByPrefix("др", PageRequest.of(0, 5))).thenReturn(List.of("Дрель"));
+
+        assertEquals(List.of("Дрель"), itemService.autocomplete(userId, " др ", 5));
+    }
+
+    @Test
+    void autocomplete_withUserNotExist_thenEntityNotFoundExceptionThrow() {
+        doThrow(EntityNotFoundException.class).when(userService).checkExists(userId);
+
+        assertThrows(EntityNotFoundException.class, () -> itemService.autocomplete(userId, "др", 5));
+        verify(itemNameTrie, never()).complete(any(), anyInt());
+    }
+
     @Test
     void createComment_withValidParams_thenReturnCommentDto() {
         CommentDto commentDto = CommentDto.builder().text("Comment").build();
-        UserDto userDto = UserDto.builder().build();
         User user = User.builder().build();
         Comment comment = Comment.builder().id(0L).build();
         Comment savedComment = Comment.builder().build();
         CommentDto savedDto = CommentDto.builder().text("saved").build();
-        when(userService.findById(userId)).thenReturn(userDto);
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userMapper.userFromDto(userDto)).thenReturn(user);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.of(item));
         when(bookingRepository
-                .findFirstByItemIdAndBookerIdAndStatusAndEndBefore(any(), any(), any(), any()))
-                .thenReturn(Optional.of(Booking.builder().build()));
+                .existsByItemIdAndBookerIdAndStatusAndEndBefore(any(), any(), any(), any()))
+                .thenReturn(true);
         when(commentMapper.commentFromDto(commentDto)).thenReturn(comment);
         when(commentsRepository.save(comment)).thenReturn(savedComment);
         when(commentMapper.commentToDto(savedComment)).thenReturn(savedDto);
@@ -396,12 +567,13 @@ class ItemServiceImplTest {
         assertEquals(0L, commentSendToSave.getId());
         assertNotNull(commentSendToSave.getItem());
         assertNotNull(commentSendToSave.getAuthor());
+        assertEquals(1, item.getCommentCount());
     }
 
     @Test
     void createComment_withUserNotExist_thenEntityNotFoundExceptionThrow() {
         CommentDto commentDto = CommentDto.builder().text("Comment").build();
-        when(userService.findById(userId)).thenThrow(EntityNotFoundException.class);
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> itemService.createComment(userId, itemId, commentDto));
@@ -412,7 +584,8 @@ class ItemServiceImplTest {
     @Test
     void createComment_whenItemNotExist_thenEntityNotFoundExceptionThrow() {
         CommentDto commentDto = CommentDto.builder().text("Comment").build();
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> itemService.createComment(userId, itemId, commentDto));
@@ -423,14 +596,12 @@ class ItemServiceImplTest {
     @Test
     void createComment_whenUserNotBookingItem_thenValidationException() {
         CommentDto commentDto = CommentDto.builder().text("Comment").build();
-        UserDto userDto = UserDto.builder().build();
         User user = User.builder().build();
-        when(userService.findById(userId)).thenReturn(userDto);
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userMapper.userFromDto(userDto)).thenReturn(user);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(itemRepository.findForUpdateById(itemId)).thenReturn(Optional.of(item));
         when(bookingRepository
-                .findFirstByItemIdAndBookerIdAndStatusAndEndBefore(any(), any(), any(), any()))
-                .thenReturn(Optional.empty());
+                .existsByItemIdAndBookerIdAndStatusAndEndBefore(any(), any(), any(), any()))
+                .thenReturn(false);
 
         assertThrows(ValidationException.class,
                 () -> itemService.createComment(userId, itemId, commentDto));
@@ -438,4 +609,48 @@ class ItemServiceImplTest {
         verify(commentsRepository, never()).save(any(Comment.class));
     }
 
-}
\ No newline at end of file
+    @Test
+    void getComments_whenMoreThanPage_thenReturnPageAndNextCursor() {
+        Instant created = Instant.parse("2030-01-02T03:04:05Z");
+        List<Comment> comments = List.of(
+                Comment.builder().id(3L).created(created).build(),
+                Comment.builder().id(2L).created(created).build(),
+                Comment.builder().id(1L).created(created.minusSeconds(1)).build());
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(commentsRepository.findAllByItemIdOrderByCreatedDescIdDesc(itemId, PageRequest.of(0, 3)))
+                .thenReturn(comments);
+        when(commentMapper.commentToDto(any())).thenReturn(CommentDto.builder().build());
+
+        CommentPageDto page = itemService.getComments(userId, itemId, null, 2);
+
+        assertEquals(2, page.getComments().size());
+        assertEquals(PageCursor.of(created, 2L), PageCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getComments_whenCursorGiven_thenReturnCommentsBeforeCursor() {
+        Instant created = Instant.parse("2030-01-02T03:04:05Z");
+        String cursor = PageCursor.of(created, 2L).encode();
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(commentsRepository.findAllByItemIdBefore(itemId, created, 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(Comment.builder().id(1L).created(created).build()));
+        when(commentMapper.commentToDto(any())).thenReturn(CommentDto.builder().build());
+
+        CommentPageDto page = itemService.getComments(userId, itemId, cursor, 2);
+
+        assertEquals(1, page.getComments().size());
+        assertNull(page.getNextCursor());
+        verify(commentsRepository, never()).findAllByItemIdOrderByCreatedDescIdDesc(any(), any());
+    }
+
+    @Test
+    void getComments_whenItemNotExist_thenEntityNotFoundExceptionThrow() {
+        when(itemRepository.existsById(itemId)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> itemService.getComments(userId, itemId, null, 10));
+
+        verifyNoInteractions(commentsRepository);
+    }
+
+}
@@ -83,6 +83,23 @@ class ItemRequestMapperTest {
 
     }
 
+    @Test
+    void toDtoWithoutItems() {
+        ItemRequest itemRequest = ItemRequest.builder()
+                .id(0L)
+                .description("desc")
+                .created(Instant.MIN)
+                .items(List.of(Item.builder().id(0L).build()))
+                .build();
+
+        ItemRequestDto actualDto = mapper.toDtoWithoutItems(itemRequest);
+
+        assertEquals(0L, actualDto.getId());
+        assertEquals("desc", actualDto.getDescription());
+        assertEquals(Instant.MIN, actualDto.getCreated());
+        assertNull(actualDto.getItems());
+    }
+
     @Test
     void itemToDto() {
         Item item = Item.builder()
@@ -6,10 +6,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.itemRequest.dto.ItemRequestDto;
 import ru.practicum.shareit.itemRequest.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.StatementCount;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -23,6 +26,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static ru.practicum.shareit.util.SqlStatementCounter.count;
 
 @Transactional
 @SpringBootTest(
@@ -34,6 +38,7 @@ class ItemRequestServiceImplIT {
     private final EntityManager em;
     private final ItemRequestServiceImpl itemRequestService;
     private final UserService userService;
+    private final ItemService itemService;
     private Long userId;
     private ItemRequestDto itemRequestDto;
 
@@ -150,4 +155,69 @@ class ItemRequestServiceImplIT {
 
         assertThat(targetRequests, hasSize(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllRequests_whenPageAndItemsGrow_thenStatementCountStaysConstant() {
+        Long requestorId = userService.create(UserDto.builder()
+                .name("Requestor")
+                .email("requestor@mail.ru").build()).getId();
+        createRequestWithItems(requestorId, 1);
+        long statementsForOneRequest = count(em, () -> itemRequestService.getAllRequests(userId, 0, 10)).getTotal();
+
+        for (int i = 0; i < 5; i++) {
+            createRequestWithItems(requestorId, 3);
+        }
+        long statementsForSixRequests = count(em, () -> {
+            List<ItemRequestDto> requests = itemRequestService.getAllRequests(userId, 0, 10);
+            assertThat(requests, hasSize(6));
+            assertThat(requests.get(5).getItems(), hasSize(3));
+        }).getTotal();
+
+        assertThat(statementsForOneRequest, greaterThan(0L));
+        assertEquals(statementsForOneRequest, statementsForSixRequests);
+    }
+
+    @Test
+    void create_whenRequestorKnown_thenOnlyInsertRequest() {
+        assertEquals(new StatementCount(0, 1, 0, 0), count(em, () -> itemRequestService.create(userId, itemRequestDto)));
+    }
+
+    @Test
+    void getAllRequestByUser_thenLoadRequestsAndTheirItems() {
+        createRequestWithItems(userId, 2);
+        createRequestWithItems(userId, 1);
+
+        assertEquals(StatementCount.selects(2), count(em, () -> itemRequestService.getAllRequestByUser(userId)));
+    }
+
+    @Test
+    void getRequestById_thenLoadRequestAndItsItems() {
+        Long requestId = createRequestWithItems(userId, 2);
+
+        assertEquals(StatementCount.selects(2), count(em, () -> itemRequestService.getRequestById(userId, requestId)));
+    }
+
+    @Test
+    void getAllRequests_thenLoadPageAndItemsOfPage() {
+        Long requestorId = userService.create(UserDto.builder()
+                .name("Requestor")
+                .email("requestor@mail.ru").build()).getId();
+        createRequestWithItems(requestorId, 2);
+        createRequestWithItems(requestorId, 1);
+
+        assertEquals(StatementCount.selects(2), count(em, () -> itemRequestService.getAllRequests(userId, 0, 10)));
+    }
+
+    private Long createRequestWithItems(Long requestorId, int itemCount) {
+        Long requestId = itemRequestService.create(requestorId,
+                ItemRequestDto.builder().description("Нужна вещь").build()).getId();
+        for (int i = 0; i < itemCount; i++) {
+            itemService.create(userId, ItemDto.builder()
+                    .name("Вещь " + i)
+                    .description("По запросу")
+                    .available(true)
+                    .requestId(requestId).build());
+        }
+        return requestId;
+    }
+}
@@ -11,13 +11,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.itemRequest.dto.ItemRequestDto;
 import ru.practicum.shareit.itemRequest.mapper.ItemRequestMapper;
 import ru.practicum.shareit.itemRequest.model.ItemRequest;
 import ru.practicum.shareit.itemRequest.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.Instant;
@@ -37,7 +39,9 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestMapper itemRequestMapper;
     @Mock
-    private UserMapper userMapper;
+    private ItemRepository itemRepository;
+    @Mock
+    private UserRepository userRepository;
 
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
@@ -62,7 +66,6 @@ class ItemRequestServiceImplTest {
 
     @Test
     void create_whenCreateItemRequestAndUserFound_thenReturnItemRequestDto() {
-        UserDto userDto = UserDto.builder().build();
         User user = User.builder().build();
         ItemRequest itemRequest = ItemRequest.builder()
                 .created(Instant.MIN).build();
@@ -71,10 +74,9 @@ class ItemRequestServiceImplTest {
                 .requestor(user)
                 .created(Instant.MIN).build();
 
-        when(userService.findById(userId)).thenReturn(userDto);
-        when(userMapper.userFromDto(userDto)).thenReturn(user);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(itemRequestMapper.fromDto(itemRequestDto)).thenReturn(itemRequest);
-        when(itemRequestRepository.save(itemRequest)).thenReturn(expectedItemRequest);
+        when(itemRequestRepository.saveAndFlush(itemRequest)).thenReturn(expectedItemRequest);
         when(itemRequestMapper.toDto(expectedItemRequest)).thenReturn(itemRequestDto);
 
         ItemRequestDto actualItemRequestDto = itemRequestService.create(userId, itemRequestDto);
@@ -84,7 +86,7 @@ class ItemRequestServiceImplTest {
         assertEquals(Instant.MIN, actualItemRequestDto.getCreated());
         assertNull(actualItemRequestDto.getItems());
 
-        verify(itemRequestRepository).save(argumentCaptorItemRequest.capture());
+        verify(itemRequestRepository).saveAndFlush(argumentCaptorItemRequest.capture());
         ItemRequest savedRequest = argumentCaptorItemRequest.getValue();
 
         assertEquals(user, savedRequest.getRequestor());
@@ -92,17 +94,17 @@ class ItemRequestServiceImplTest {
 
     @Test
     void create_whenCreateItemRequestAndUserNotFound_thenEntityNotFoundExceptionThrow() {
-        when(userService.findById(userId)).thenThrow(EntityNotFoundException.class);
+        doThrow(EntityNotFoundException.class).when(userService).checkExists(userId);
 
         assertThrows(EntityNotFoundException.class, () -> itemRequestService.create(userId, itemRequestDto));
-        verify(itemRequestRepository, never()).save(any());
+        verify(itemRequestRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void getAllRequestByUser_whenInvoke_thenReturnCollectionItemRequestDto() {
         List<ItemRequest> requests = List.of(itemRequest);
         when(itemRequestRepository.findByRequestorIdOrderByCreatedAsc(userId)).thenReturn(requests);
-        when(itemRequestMapper.toDto(itemRequest)).thenReturn(itemRequestDto);
+        when(itemRequestMapper.toDtoWithoutItems(itemRequest)).thenReturn(itemRequestDto);
 
         List<ItemRequestDto> actualRequests = itemRequestService.getAllRequestByUser(userId);
 
@@ -114,7 +116,7 @@ class ItemRequestServiceImplTest {
     void getRequestById_whenItemRequestFound_thenReturnItemRequestDto() {
         Long requestId = 0L;
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(itemRequest));
-        when(itemRequestMapper.toDto(itemRequest)).thenReturn(itemRequestDto);
+        when(itemRequestMapper.toDtoWithoutItems(itemRequest)).thenReturn(itemRequestDto);
 
         ItemRequestDto actualRequestDto = itemRequestService.getRequestById(userId, requestId);
 
@@ -136,11 +138,32 @@ class ItemRequestServiceImplTest {
         Pageable page = PageRequest.of(from > 0 ? from / size : 0, size);
         List<ItemRequest> requests = List.of(itemRequest);
         when(itemRequestRepository.findByRequestorIdNotOrderByCreatedAsc(userId, page)).thenReturn(requests);
-        when(itemRequestMapper.toDto(itemRequest)).thenReturn(itemRequestDto);
+        when(itemRequestMapper.toDtoWithoutItems(itemRequest)).thenReturn(itemRequestDto);
 
         List<ItemRequestDto> actualRequests = itemRequestService.getAllRequests(userId, from, size);
 
         assertFalse(actualRequests.isEmpty());
         assertEquals(itemRequestDto, actualRequests.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllRequests_whenRequestsHaveItems_thenLoadItemsInOneQueryAndGroupByRequest() {
+        ItemRequest first = ItemRequest.builder().id(1L).build();
+        ItemRequest second = ItemRequest.builder().id(2L).build();
+        Item item = Item.builder().id(3L).request(first).build();
+        ItemDto itemDto = ItemDto.builder().id(3L).requestId(1L).build();
+        when(itemRequestRepository.findByRequestorIdNotOrderByCreatedAsc(eq(userId), any()))
+                .thenReturn(List.of(first, second));
+        when(itemRepository.findAllByRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(item));
+        when(itemRequestMapper.itemToDto(item)).thenReturn(itemDto);
+        when(itemRequestMapper.toDtoWithoutItems(first)).thenReturn(ItemRequestDto.builder().id(1L).build());
+        when(itemRequestMapper.toDtoWithoutItems(second)).thenReturn(ItemRequestDto.builder().id(2L).build());
+
+        List<ItemRequestDto> actualRequests = itemRequestService.getAllRequests(userId, 0, 5);
+
+        assertEquals(List.of(itemDto), actualRequests.get(0).getItems());
+        assertTrue(actualRequests.get(1).getItems().isEmpty());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(any());
+        verify(itemRequestMapper, never()).toDto(any());
+    }
+}
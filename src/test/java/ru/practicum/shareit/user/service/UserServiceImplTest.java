@@ -11,6 +11,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -95,17 +97,77 @@ class UserServiceImplTest {
         assertEquals("Entity User not found by ID: 0", entityNotFoundException.getMessage());
     }
 
+    @Test
+    void checkExists_whenUserExists_thenQueryRepositoryOnlyOnce() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        userService.checkExists(userId);
+        userService.checkExists(userId);
+
+        verify(userRepository, times(1)).existsById(userId);
+    }
+
+    @Test
+    void checkExists_whenUserNotExists_thenEntityNotFoundExceptionThrow() {
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> userService.checkExists(userId));
+        assertThrows(EntityNotFoundException.class, () -> userService.checkExists(userId));
+        verify(userRepository, times(2)).existsById(userId);
+    }
+
+    @Test
+    void checkExists_whenUserCreated_thenNotQueryRepository() {
+        when(userMapper.userFromDto(userDto)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+
+        userService.create(userDto);
+        userService.checkExists(user.getId());
+
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void checkExists_whenUserDeleted_thenQueryRepositoryAgain() {
+        when(userRepository.existsById(userId)).thenReturn(true, false);
+        userService.checkExists(userId);
+
+        userService.delete(userId);
+
+        assertThrows(EntityNotFoundException.class, () -> userService.checkExists(userId));
+        verify(userRepository, times(2)).existsById(userId);
+    }
+
+    @Test
+    void checkExists_whenCheckedBeforeDeleteCommitted_thenQueryRepositoryAgainAfterCompletion() {
+        when(userRepository.existsById(userId)).thenReturn(true, false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.delete(userId);
+            userService.checkExists(userId);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThrows(EntityNotFoundException.class, () -> userService.checkExists(userId));
+        verify(userRepository, times(2)).existsById(userId);
+    }
+
     @Test
     void create_whenCreateUser_returnUserDto() {
         when(userMapper.userFromDto(userDto)).thenReturn(user);
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
         when(userMapper.userToDto(user))
                 .thenReturn(userDto);
 
         UserDto actualUserDto = userService.create(userDto);
 
         assertEquals(userDto, actualUserDto);
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
     }
 
     @Test
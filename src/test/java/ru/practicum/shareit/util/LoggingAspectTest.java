@@ -0,0 +1,110 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.logging.LogLevel;
+import ru.practicum.shareit.exception.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Target target;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect(meterRegistry));
+        target = factory.getProxy();
+    }
+
+    @Test
+    void log_whenMethodSucceeds_thenRecordTimerWithSuccessOutcome() {
+        assertEquals(2L, target.increment(1L));
+        assertEquals(3L, target.increment(2L));
+
+        Timer timer = meterRegistry.get(LoggingAspect.TIMER_NAME)
+                .tag("class", "Target")
+                .tag("method", "increment")
+                .tag("outcome", LoggingAspect.OUTCOME_SUCCESS)
+                .timer();
+        assertEquals(2L, timer.count());
+    }
+
+    @Test
+    void log_whenMethodThrows_thenRecordTimerWithExceptionOutcomeAndRethrow() {
+        assertThrows(ValidationException.class, () -> target.fail());
+
+        Timer timer = meterRegistry.get(LoggingAspect.TIMER_NAME)
+                .tag("method", "fail")
+                .tag("outcome", "ValidationException")
+                .timer();
+        assertEquals(1L, timer.count());
+    }
+
+    @Test
+    void log_whenTimedDisabled_thenNotRecordTimer() {
+        target.untimed();
+
+        assertNull(meterRegistry.find(LoggingAspect.TIMER_NAME).tag("method", "untimed").timer());
+    }
+
+    @Test
+    void log_whenLevelDisabled_thenNotBuildMessage() {
+        Probe probe = new Probe();
+
+        target.traced(probe);
+
+        assertEquals(0, probe.renders);
+    }
+
+    @Test
+    void log_whenLevelEnabled_thenBuildMessageWithArgs() {
+        Probe probe = new Probe();
+
+        target.logged(probe);
+
+        assertEquals(1, probe.renders);
+    }
+
+    static class Target {
+
+        @LogExecution(withArgs = true)
+        public long increment(long value) {
+            return value + 1;
+        }
+
+        @LogExecution
+        public void fail() {
+            throw new ValidationException("Некорректные данные");
+        }
+
+        @LogExecution(timed = false)
+        public void untimed() {
+        }
+
+        @LogExecution(value = LogLevel.TRACE, withArgs = true)
+        public void traced(Probe probe) {
+        }
+
+        @LogExecution(withArgs = true)
+        public void logged(Probe probe) {
+        }
+    }
+
+    static class Probe {
+        private int renders;
+
+        @Override
+        public String toString() {
+            renders++;
+            return "probe";
+        }
+    }
+}
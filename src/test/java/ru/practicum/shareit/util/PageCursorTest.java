@@ -0,0 +1,38 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void encodeAndDecode_thenReturnSameCursor() {
+        PageCursor cursor = PageCursor.of(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 6000), 42L);
+
+        PageCursor actualCursor = PageCursor.decode(cursor.encode());
+
+        assertEquals(cursor, actualCursor);
+    }
+
+    @Test
+    void encodeAndDecode_withInstantKey_thenReturnSameInstant() {
+        Instant key = Instant.parse("2030-01-02T03:04:05.000006Z");
+
+        PageCursor actualCursor = PageCursor.decode(PageCursor.of(key, 42L).encode());
+
+        assertEquals(key, actualCursor.getInstantKey());
+        assertEquals(42L, actualCursor.getId());
+    }
+
+    @Test
+    void decode_withMalformedToken_thenValidationExceptionThrow() {
+        assertThrows(ValidationException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(ValidationException.class, () -> PageCursor.decode("bm90IGEgY3Vyc29y"));
+    }
+}
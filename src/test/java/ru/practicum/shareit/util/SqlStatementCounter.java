@@ -0,0 +1,99 @@
+package ru.practicum.shareit.util;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Считает SQL-запросы, которые Hibernate готовит за время вызова сервиса, по видам.
+ * <p>
+ * Подключается к каждому {@code @SpringBootTest}-контексту сканированием компонентов. Запросы следующего
+ * значения последовательности не считаются: их число зависит от того, сколько идентификаторов из пула
+ * уже выдали другие тесты. Пакетная вставка считается одним запросом, как и в статистике Hibernate.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final AtomicLong SELECT = new AtomicLong();
+    private static final AtomicLong INSERT = new AtomicLong();
+    private static final AtomicLong UPDATE = new AtomicLong();
+    private static final AtomicLong DELETE = new AtomicLong();
+    private static final List<String> SELECTS = new CopyOnWriteArrayList<>();
+
+    private static volatile boolean recording;
+
+    /**
+     * Выполняет вызов и возвращает число запросов, которые он отправил в базу.
+     * Если тест идет в транзакции, изменения сбрасываются в базу до и после вызова, а контекст
+     * персистентности очищается, чтобы вызов не пользовался уже загруженными сущностями.
+     * Кэш второго уровня тоже сбрасывается, поэтому результат не зависит от порядка тестов.
+     */
+    public static StatementCount count(EntityManager em, Runnable serviceCall) {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        if (inTransaction) {
+            em.flush();
+            em.clear();
+        }
+        em.getEntityManagerFactory().getCache().evictAll();
+        reset();
+        recording = true;
+        try {
+            serviceCall.run();
+            if (inTransaction) {
+                em.flush();
+            }
+        } finally {
+            recording = false;
+        }
+        return new StatementCount(SELECT.get(), INSERT.get(), UPDATE.get(), DELETE.get());
+    }
+
+    /**
+     * Выполняет вызов так же, как {@link #count}, и возвращает тексты выборок, которые он отправил в базу,
+     * с параметрами в виде {@code ?}.
+     */
+    public static List<String> captureSelects(EntityManager em, Runnable serviceCall) {
+        count(em, serviceCall);
+        return List.copyOf(SELECTS);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (recording) {
+            String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (statement.startsWith("insert")) {
+                INSERT.incrementAndGet();
+            } else if (statement.startsWith("update")) {
+                UPDATE.incrementAndGet();
+            } else if (statement.startsWith("delete")) {
+                DELETE.incrementAndGet();
+            } else if (!statement.contains("nextval") && !statement.contains("next value for")) {
+                SELECT.incrementAndGet();
+                SELECTS.add(sql);
+            }
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    private static void reset() {
+        SELECT.set(0);
+        INSERT.set(0);
+        UPDATE.set(0);
+        DELETE.set(0);
+        SELECTS.clear();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.util;
+
+import lombok.Value;
+
+/**
+ * Число запросов каждого вида, выполненных за вызов. Выборки включают и прочие запросы,
+ * кроме изменяющих данные.
+ */
+@Value
+public class StatementCount {
+    long select;
+    long insert;
+    long update;
+    long delete;
+
+    public static StatementCount selects(long select) {
+        return new StatementCount(select, 0, 0, 0);
+    }
+
+    public long getTotal() {
+        return select + insert + update + delete;
+    }
+}